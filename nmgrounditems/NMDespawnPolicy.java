@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2026, TomMartow <https://github.com/TomMartow>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.nmgrounditems;
+
+import com.google.common.collect.ImmutableMap;
+import lombok.RequiredArgsConstructor;
+import net.runelite.api.Client;
+import net.runelite.api.Player;
+import net.runelite.api.coords.WorldPoint;
+
+import java.util.Map;
+
+/**
+ * How long items stay on the ground in the current scene, in game ticks. The policy is
+ * resolved once per scene load and then applied to each item as it spawns.
+ */
+@RequiredArgsConstructor
+enum NMDespawnPolicy
+{
+	// Loot appears to others after 1 minute, and despawns after 2 minutes
+	// Dropped items appear to others after 1 minute, and despawns after 3 minutes
+	OVERWORLD(false, 200, 300, 1000),
+	// GWD, Nex, Nightmare, Tempoross, the clan hall and the KBD lair use the normal despawn timers
+	STANDARD_INSTANCE(true, 200, 300, 200),
+	// Dropped items in the NMZ instance never despawn
+	NMZ(true, 200, -1, 200),
+	// Items in instances never appear to anyone and despawn after 30 minutes
+	INSTANCE(true, 3000, 3000, 3000),
+	// Items in the Kraken instance never despawn
+	PERMANENT(true, -1, -1, -1);
+
+	private static final int PRIVATE_TICKS = 100;
+
+	private static final int KRAKEN_REGION = 9116;
+	private static final int CLAN_HALL_REGION = 6997;
+	private static final int KBD_NMZ_REGION = 9033;
+	private static final int ZILYANA_REGION = 11602;
+	private static final int GRAARDOR_REGION = 11347;
+	private static final int KRIL_TSUTSAROTH_REGION = 11603;
+	private static final int KREEARRA_REGION = 11346;
+	private static final int NEX_REGION = 11601;
+	private static final int NIGHTMARE_REGION = 15515;
+	private static final int TEMPOROSS_REGION = 12078;
+
+	private static final Map<Integer, NMDespawnPolicy> INSTANCE_REGIONS = ImmutableMap.<Integer, NMDespawnPolicy>builder()
+		.put(KRAKEN_REGION, PERMANENT)
+		.put(ZILYANA_REGION, STANDARD_INSTANCE)
+		.put(GRAARDOR_REGION, STANDARD_INSTANCE)
+		.put(KRIL_TSUTSAROTH_REGION, STANDARD_INSTANCE)
+		.put(KREEARRA_REGION, STANDARD_INSTANCE)
+		.put(NEX_REGION, STANDARD_INSTANCE)
+		.put(NIGHTMARE_REGION, STANDARD_INSTANCE)
+		.put(TEMPOROSS_REGION, STANDARD_INSTANCE)
+		.put(CLAN_HALL_REGION, STANDARD_INSTANCE)
+		.build();
+
+	private final boolean alwaysPrivate;
+	// Ticks until despawn per loot type, -1 if the item never despawns
+	private final int lootTicks;
+	private final int droppedTicks;
+	private final int tableTicks;
+
+	static NMDespawnPolicy resolve(Client client)
+	{
+		if (!client.isInInstancedRegion())
+		{
+			return OVERWORLD;
+		}
+
+		final Player player = client.getLocalPlayer();
+		if (player == null)
+		{
+			return INSTANCE;
+		}
+
+		final WorldPoint location = WorldPoint.fromLocalInstance(client, player.getLocalLocation());
+		if (location.getRegionID() == KBD_NMZ_REGION)
+		{
+			// NMZ and the KBD lair uses the same region ID but NMZ uses planes 1-3 and KBD uses plane 0
+			return player.getWorldLocation().getPlane() == 0 ? STANDARD_INSTANCE : NMZ;
+		}
+
+		return INSTANCE_REGIONS.getOrDefault(location.getRegionID(), INSTANCE);
+	}
+
+	/**
+	 * Returns the tick the item despawns on, or -1 if it is not known.
+	 */
+	int getDespawnTick(NMLootType lootType, int spawnTick)
+	{
+		if (spawnTick < 0)
+		{
+			return -1;
+		}
+
+		// We can only accurately guess despawn times for our own pvm loot, dropped items,
+		// and items we placed on tables
+		final int ticks;
+		switch (lootType)
+		{
+			case PVM:
+				ticks = lootTicks;
+				break;
+			case DROPPED:
+				ticks = droppedTicks;
+				break;
+			case TABLE:
+				ticks = tableTicks;
+				break;
+			default:
+				return -1;
+		}
+
+		return ticks < 0 ? -1 : spawnTick + ticks;
+	}
+
+	/**
+	 * Returns the tick the item becomes visible to other players, or -1 if it never does.
+	 */
+	int getPublicTick(int spawnTick)
+	{
+		return alwaysPrivate || spawnTick < 0 ? -1 : spawnTick + PRIVATE_TICKS;
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2026, TomMartow <https://github.com/TomMartow>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.nmgrounditems;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel with one slot per game tick. Each tracked ground item has at most one
+ * live entry; rescheduling an item simply orphans its previous entry, which is dropped the
+ * next time its slot comes around.
+ */
+class NMDespawnWheel
+{
+	private static final int SLOTS = 512;
+	private static final int MASK = SLOTS - 1;
+
+	static final class Entry
+	{
+		private final NMGroundItem item;
+		private final int tick;
+		private Entry next;
+
+		private Entry(NMGroundItem item, int tick)
+		{
+			this.item = item;
+			this.tick = tick;
+		}
+	}
+
+	private final Entry[] slots = new Entry[SLOTS];
+	private int lastTick = -1;
+
+	void schedule(NMGroundItem item, int tick)
+	{
+		final Entry entry = new Entry(item, tick);
+		final int slot = tick & MASK;
+		entry.next = slots[slot];
+		slots[slot] = entry;
+		item.setDespawnEntry(entry);
+	}
+
+	void cancel(NMGroundItem item)
+	{
+		item.setDespawnEntry(null);
+	}
+
+	void clear()
+	{
+		Arrays.fill(slots, null);
+	}
+
+	/**
+	 * Advances the wheel to the given tick, passing every item whose scheduled tick has been
+	 * reached to the consumer. The consumer may reschedule the item.
+	 */
+	void advance(int tick, Consumer<NMGroundItem> expired)
+	{
+		if (lastTick == -1 || tick < lastTick)
+		{
+			lastTick = tick - 1;
+		}
+
+		// After a long pause every slot is visited once
+		final int from = Math.max(lastTick + 1, tick - MASK);
+		lastTick = tick;
+
+		for (int t = from; t <= tick; t++)
+		{
+			final int slot = t & MASK;
+			Entry entry = slots[slot];
+			slots[slot] = null;
+
+			while (entry != null)
+			{
+				final Entry next = entry.next;
+				if (entry.item.getDespawnEntry() == entry)
+				{
+					if (entry.tick <= tick)
+					{
+						entry.item.setDespawnEntry(null);
+						expired.accept(entry.item);
+					}
+					else
+					{
+						// Scheduled for a later turn of the wheel
+						entry.next = slots[slot];
+						slots[slot] = entry;
+					}
+				}
+				entry = next;
+			}
+		}
+	}
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2026, TomMartow <https://github.com/TomMartow>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.nmgrounditems;
+
+import net.runelite.client.util.QuantityFormatter;
+
+/**
+ * Drops to notify about, collected over a game tick and sent as one notification.
+ */
+class NMDropNotification
+{
+	// Number of drops named in a notification before the rest are only counted
+	private static final int MAX_NAMED = 2;
+
+	private final StringBuilder names = new StringBuilder();
+	private String firstDrop;
+	private int count;
+	private long value;
+	private boolean highlighted;
+
+	void add(String name, int quantity, int value, boolean highlighted)
+	{
+		final StringBuilder drop = new StringBuilder(name);
+		if (quantity > 1)
+		{
+			drop.append(" (")
+				.append(QuantityFormatter.quantityToStackSize(quantity))
+				.append(')');
+		}
+
+		if (count == 0)
+		{
+			firstDrop = drop.toString();
+		}
+
+		if (count < MAX_NAMED)
+		{
+			if (count > 0)
+			{
+				names.append(", ");
+			}
+			names.append(drop);
+		}
+
+		count++;
+		this.value += value;
+		this.highlighted |= highlighted;
+	}
+
+	boolean isEmpty()
+	{
+		return count == 0;
+	}
+
+	/**
+	 * Builds the notification for the collected drops and clears them.
+	 */
+	String build()
+	{
+		final String dropType = highlighted ? "highlighted" : "valuable";
+		final String message;
+		if (count == 1)
+		{
+			message = "You received a " + dropType + " drop: " + firstDrop;
+		}
+		else
+		{
+			final StringBuilder builder = new StringBuilder()
+				.append(count)
+				.append(' ')
+				.append(dropType)
+				.append(" drops: ")
+				.append(names);
+
+			if (count > MAX_NAMED)
+			{
+				builder.append(" (+")
+					.append(count - MAX_NAMED)
+					.append(" more)");
+			}
+
+			message = builder.append(", total ")
+				.append(QuantityFormatter.quantityToStackSize(value))
+				.toString();
+		}
+
+		clear();
+		return message;
+	}
+
+	void clear()
+	{
+		names.setLength(0);
+		firstDrop = null;
+		count = 0;
+		value = 0;
+		highlighted = false;
+	}
+}
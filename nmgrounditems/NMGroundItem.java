@@ -24,46 +24,133 @@
  */
 package net.runelite.client.plugins.nmgrounditems;
 
-import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 import net.runelite.api.coords.WorldPoint;
 
-import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.time.Instant;
 
-@Data
-@Builder
+/**
+ * A tracked ground item stack. Only the per-stack state is kept here, with the tile packed
+ * into an int and the definition data read from the shared {@link NMItemTable}. Equality is
+ * identity: the state is mutable, so it must not take part in hashing.
+ */
 class NMGroundItem
 {
-	private int id;
-	private int itemId;
-	private String name;
+	private static final NMLootType[] LOOT_TYPES = NMLootType.values();
+
+	@Getter
+	private final int id;
+	// Definition data of the item, shared by every item with the same id
+	private final NMItemTable itemTable;
+	// Tile packed by NMGroundItemIndex.packTile
+	@Getter
+	private final int tile;
+	// Height offset of the item layer
+	@Getter
+	private final int height;
+	@Getter
+	@Setter
 	private int quantity;
-	private WorldPoint location;
-	private int height;
-	private int haPrice;
-	private int gePrice;
-	private int offset;
-	private boolean tradeable;
-	@Nonnull
-	private NMLootType lootType;
+	// Game tick the item spawned on, or -1 if not known
+	@Getter
+	@Setter
+	private int spawnTick;
+	// Game tick the item becomes visible to others, or -1 if it stays private
+	@Getter
+	@Setter
+	private int publicTick = -1;
+	// Game tick the item despawns on, or -1 if not known
+	@Getter
+	@Setter
+	private int despawnTick = -1;
+	private byte lootType;
+	// Next item on the same tile, maintained by NMGroundItemIndex
+	@Nullable
+	@Getter
+	@Setter
+	private NMGroundItem nextOnTile;
+	@Nullable
+	@Getter
+	@Setter
+	private NMItemClassification classification;
 	@Nullable
-	private Instant spawnTime;
-	private boolean stackable;
+	@Getter
+	@Setter
+	private NMRenderItem renderItem;
+	@Nullable
+	@Getter
+	@Setter
+	private NMDespawnWheel.Entry despawnEntry;
+
+	NMGroundItem(int id, NMItemTable itemTable, WorldPoint location, int height, int quantity, NMLootType lootType, int spawnTick)
+	{
+		this.id = id;
+		this.itemTable = itemTable;
+		this.tile = NMGroundItemIndex.packTile(location);
+		this.height = height;
+		this.quantity = quantity;
+		this.lootType = (byte) lootType.ordinal();
+		this.spawnTick = spawnTick;
+	}
+
+	/**
+	 * Returns a new point for the packed tile. Prefer {@link #getTile()} on hot paths.
+	 */
+	WorldPoint getLocation()
+	{
+		return new WorldPoint(NMGroundItemIndex.tileX(tile), NMGroundItemIndex.tileY(tile), NMGroundItemIndex.tilePlane(tile));
+	}
+
+	NMLootType getLootType()
+	{
+		return LOOT_TYPES[lootType];
+	}
+
+	void setLootType(NMLootType lootType)
+	{
+		this.lootType = (byte) lootType.ordinal();
+	}
+
+	int getItemId()
+	{
+		return itemTable.getLinkedId(id);
+	}
+
+	String getName()
+	{
+		return itemTable.getName(id);
+	}
 
 	int getHaPrice()
 	{
-		return haPrice * quantity;
+		return itemTable.getHaPrice(id) * quantity;
 	}
 
 	int getGePrice()
 	{
-		return gePrice * quantity;
+		return itemTable.getGePrice(id) * quantity;
+	}
+
+	boolean isTradeable()
+	{
+		return itemTable.isTradeable(id);
+	}
+
+	boolean isStackable()
+	{
+		return itemTable.isStackable(id);
 	}
 
 	boolean isMine()
 	{
-		return lootType != lootType.UNKNOWN;
+		return getLootType() != NMLootType.UNKNOWN;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "NMGroundItem(id=" + id + ", quantity=" + quantity + ", location=" + getLocation()
+			+ ", lootType=" + getLootType() + ", spawnTick=" + spawnTick + ")";
 	}
 }
@@ -0,0 +1,423 @@
+/*
+ * Copyright (c) 2026, TomMartow <https://github.com/TomMartow>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.nmgrounditems;
+
+import net.runelite.api.coords.WorldPoint;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Open-addressing index of ground items keyed by their packed (x, y, plane, item id).
+ * Items on the same tile are additionally linked together in spawn order so that
+ * a whole tile can be walked without a secondary map.
+ */
+class NMGroundItemIndex implements Iterable<NMGroundItem>
+{
+	private static final int INITIAL_CAPACITY = 256;
+
+	// item id -> ground item
+	private long[] keys = new long[INITIAL_CAPACITY];
+	private NMGroundItem[] items = new NMGroundItem[INITIAL_CAPACITY];
+	private int size;
+
+	// tile -> first ground item on that tile
+	private int[] tileKeys = new int[INITIAL_CAPACITY];
+	private NMGroundItem[] tileHeads = new NMGroundItem[INITIAL_CAPACITY];
+	private int tileCount;
+
+	static int packTile(int x, int y, int plane)
+	{
+		return (plane & 0x3) << 30 | (x & 0x7FFF) << 15 | (y & 0x7FFF);
+	}
+
+	static int packTile(WorldPoint worldPoint)
+	{
+		return packTile(worldPoint.getX(), worldPoint.getY(), worldPoint.getPlane());
+	}
+
+	static long packItem(int tileKey, int itemId)
+	{
+		return (long) tileKey << 32 | (itemId & 0xFFFFFFFFL);
+	}
+
+	static int tileX(int tileKey)
+	{
+		return tileKey >>> 15 & 0x7FFF;
+	}
+
+	static int tileY(int tileKey)
+	{
+		return tileKey & 0x7FFF;
+	}
+
+	static int tilePlane(int tileKey)
+	{
+		return tileKey >>> 30;
+	}
+
+	int size()
+	{
+		return size;
+	}
+
+	boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	NMGroundItem get(WorldPoint worldPoint, int itemId)
+	{
+		return get(packTile(worldPoint), itemId);
+	}
+
+	NMGroundItem get(int tileKey, int itemId)
+	{
+		final long key = packItem(tileKey, itemId);
+		final int mask = keys.length - 1;
+		for (int slot = mix(key) & mask; items[slot] != null; slot = (slot + 1) & mask)
+		{
+			if (keys[slot] == key)
+			{
+				return items[slot];
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Returns the first item on the given tile, or null if the tile is empty. The remaining
+	 * items on the tile are reached through {@link NMGroundItem#getNextOnTile()}.
+	 */
+	NMGroundItem getTile(int tileKey)
+	{
+		final int mask = tileKeys.length - 1;
+		for (int slot = mix(tileKey) & mask; tileHeads[slot] != null; slot = (slot + 1) & mask)
+		{
+			if (tileKeys[slot] == tileKey)
+			{
+				return tileHeads[slot];
+			}
+		}
+
+		return null;
+	}
+
+	NMGroundItem getTile(WorldPoint worldPoint)
+	{
+		return getTile(packTile(worldPoint));
+	}
+
+	/**
+	 * Adds an item to the index, replacing any item with the same id on the same tile.
+	 */
+	void put(NMGroundItem item)
+	{
+		final int tileKey = item.getTile();
+		remove(tileKey, item.getId());
+
+		if ((size + 1) * 2 > keys.length)
+		{
+			resizeItems(keys.length * 2);
+		}
+
+		insertItem(packItem(tileKey, item.getId()), item);
+		size++;
+
+		item.setNextOnTile(null);
+		final NMGroundItem head = getTile(tileKey);
+		if (head == null)
+		{
+			if ((tileCount + 1) * 2 > tileKeys.length)
+			{
+				resizeTiles(tileKeys.length * 2);
+			}
+
+			insertTile(tileKey, item);
+			tileCount++;
+		}
+		else
+		{
+			// Append so that the tile keeps spawn order
+			NMGroundItem tail = head;
+			while (tail.getNextOnTile() != null)
+			{
+				tail = tail.getNextOnTile();
+			}
+			tail.setNextOnTile(item);
+		}
+	}
+
+	NMGroundItem remove(WorldPoint worldPoint, int itemId)
+	{
+		return remove(packTile(worldPoint), itemId);
+	}
+
+	NMGroundItem remove(int tileKey, int itemId)
+	{
+		final long key = packItem(tileKey, itemId);
+		final int mask = keys.length - 1;
+		int slot = mix(key) & mask;
+		while (items[slot] != null && keys[slot] != key)
+		{
+			slot = (slot + 1) & mask;
+		}
+
+		final NMGroundItem removed = items[slot];
+		if (removed == null)
+		{
+			return null;
+		}
+
+		deleteItemSlot(slot);
+		size--;
+		unlinkFromTile(tileKey, removed);
+		return removed;
+	}
+
+	void clear()
+	{
+		if (size == 0 && tileCount == 0)
+		{
+			return;
+		}
+
+		Arrays.fill(items, null);
+		Arrays.fill(tileHeads, null);
+		size = 0;
+		tileCount = 0;
+	}
+
+	/**
+	 * Calls the consumer with the first item of every occupied tile.
+	 */
+	void forEachTile(Consumer<NMGroundItem> consumer)
+	{
+		final NMGroundItem[] heads = tileHeads;
+		for (NMGroundItem head : heads)
+		{
+			if (head != null)
+			{
+				consumer.accept(head);
+			}
+		}
+	}
+
+	/**
+	 * Iterates all items tile by tile, in spawn order within each tile.
+	 */
+	@Override
+	public Iterator<NMGroundItem> iterator()
+	{
+		return new Iterator<NMGroundItem>()
+		{
+			private int tileSlot = -1;
+			private NMGroundItem next = advance(null);
+
+			private NMGroundItem advance(NMGroundItem current)
+			{
+				if (current != null && current.getNextOnTile() != null)
+				{
+					return current.getNextOnTile();
+				}
+
+				while (++tileSlot < tileHeads.length)
+				{
+					if (tileHeads[tileSlot] != null)
+					{
+						return tileHeads[tileSlot];
+					}
+				}
+
+				return null;
+			}
+
+			@Override
+			public boolean hasNext()
+			{
+				return next != null;
+			}
+
+			@Override
+			public NMGroundItem next()
+			{
+				final NMGroundItem current = next;
+				if (current == null)
+				{
+					throw new NoSuchElementException();
+				}
+
+				next = advance(current);
+				return current;
+			}
+		};
+	}
+
+	private void unlinkFromTile(int tileKey, NMGroundItem item)
+	{
+		final int mask = tileKeys.length - 1;
+		int slot = mix(tileKey) & mask;
+		while (tileHeads[slot] != null && tileKeys[slot] != tileKey)
+		{
+			slot = (slot + 1) & mask;
+		}
+
+		final NMGroundItem head = tileHeads[slot];
+		if (head == null)
+		{
+			return;
+		}
+
+		if (head == item)
+		{
+			if (item.getNextOnTile() != null)
+			{
+				tileHeads[slot] = item.getNextOnTile();
+			}
+			else
+			{
+				deleteTileSlot(slot);
+				tileCount--;
+			}
+		}
+		else
+		{
+			NMGroundItem prev = head;
+			while (prev.getNextOnTile() != null && prev.getNextOnTile() != item)
+			{
+				prev = prev.getNextOnTile();
+			}
+			prev.setNextOnTile(item.getNextOnTile());
+		}
+
+		item.setNextOnTile(null);
+	}
+
+	private void insertItem(long key, NMGroundItem item)
+	{
+		final int mask = keys.length - 1;
+		int slot = mix(key) & mask;
+		while (items[slot] != null)
+		{
+			slot = (slot + 1) & mask;
+		}
+
+		keys[slot] = key;
+		items[slot] = item;
+	}
+
+	private void insertTile(int tileKey, NMGroundItem head)
+	{
+		final int mask = tileKeys.length - 1;
+		int slot = mix(tileKey) & mask;
+		while (tileHeads[slot] != null)
+		{
+			slot = (slot + 1) & mask;
+		}
+
+		tileKeys[slot] = tileKey;
+		tileHeads[slot] = head;
+	}
+
+	// Backward shift deletion keeps probe chains intact without tombstones
+	private void deleteItemSlot(int slot)
+	{
+		final int mask = keys.length - 1;
+		int hole = slot;
+		for (int i = (hole + 1) & mask; items[i] != null; i = (i + 1) & mask)
+		{
+			final int home = mix(keys[i]) & mask;
+			if (((i - home) & mask) >= ((i - hole) & mask))
+			{
+				keys[hole] = keys[i];
+				items[hole] = items[i];
+				hole = i;
+			}
+		}
+
+		items[hole] = null;
+	}
+
+	private void deleteTileSlot(int slot)
+	{
+		final int mask = tileKeys.length - 1;
+		int hole = slot;
+		for (int i = (hole + 1) & mask; tileHeads[i] != null; i = (i + 1) & mask)
+		{
+			final int home = mix(tileKeys[i]) & mask;
+			if (((i - home) & mask) >= ((i - hole) & mask))
+			{
+				tileKeys[hole] = tileKeys[i];
+				tileHeads[hole] = tileHeads[i];
+				hole = i;
+			}
+		}
+
+		tileHeads[hole] = null;
+	}
+
+	private void resizeItems(int capacity)
+	{
+		final long[] oldKeys = keys;
+		final NMGroundItem[] oldItems = items;
+		keys = new long[capacity];
+		items = new NMGroundItem[capacity];
+
+		for (int i = 0; i < oldItems.length; i++)
+		{
+			if (oldItems[i] != null)
+			{
+				insertItem(oldKeys[i], oldItems[i]);
+			}
+		}
+	}
+
+	private void resizeTiles(int capacity)
+	{
+		final int[] oldKeys = tileKeys;
+		final NMGroundItem[] oldHeads = tileHeads;
+		tileKeys = new int[capacity];
+		tileHeads = new NMGroundItem[capacity];
+
+		for (int i = 0; i < oldHeads.length; i++)
+		{
+			if (oldHeads[i] != null)
+			{
+				insertTile(oldKeys[i], oldHeads[i]);
+			}
+		}
+	}
+
+	private static int mix(long key)
+	{
+		key ^= key >>> 33;
+		key *= 0xFF51AFD7ED558CCDL;
+		key ^= key >>> 33;
+		return (int) key;
+	}
+}
@@ -41,41 +41,58 @@ class NMGroundItemMouseAdapter extends MouseAdapter
 	{
 		final Point mousePos = e.getPoint();
 
-		if (plugin.isHotKeyPressed())
+		if (!plugin.isHotKeyPressed())
 		{
-			if (SwingUtilities.isLeftMouseButton(e))
+			return e;
+		}
+
+		final NMHitIndex hitIndex = plugin.getHitIndex();
+		final int kind;
+		final NMRenderItem item;
+		synchronized (hitIndex)
+		{
+			final int hit = hitIndex.find(mousePos.x, mousePos.y);
+			if (hit == -1)
 			{
-				// Process both click boxes for hidden and highlighted items
-				if (plugin.getHiddenBoxBounds() != null && plugin.getHiddenBoxBounds().getKey().contains(mousePos))
-				{
-					plugin.updateList(plugin.getHiddenBoxBounds().getValue().getName(), true);
-					e.consume();
-					return e;
-				}
+				return e;
+			}
 
-				if (plugin.getHighlightBoxBounds() != null && plugin.getHighlightBoxBounds().getKey().contains(mousePos))
-				{
-					plugin.updateList(plugin.getHighlightBoxBounds().getValue().getName(), false);
-					e.consume();
-					return e;
-				}
+			kind = hitIndex.getKind(hit);
+			item = hitIndex.getItem(hit);
+		}
 
-				// There is one name click box for left click and one for right click
-				if (plugin.getTextBoxBounds() != null && plugin.getTextBoxBounds().getKey().contains(mousePos))
-				{
-					plugin.updateList(plugin.getTextBoxBounds().getValue().getName(), false);
-					e.consume();
-					return e;
-				}
+		if (SwingUtilities.isLeftMouseButton(e))
+		{
+			// Process both click boxes for hidden and highlighted items
+			if (kind == NMHitIndex.HIDDEN)
+			{
+				plugin.updateList(item.getName(), true);
+				e.consume();
+				return e;
 			}
-			else if (SwingUtilities.isRightMouseButton(e))
+
+			if (kind == NMHitIndex.HIGHLIGHT)
+			{
+				plugin.updateList(item.getName(), false);
+				e.consume();
+				return e;
+			}
+
+			// There is one name click box for left click and one for right click
+			if (kind == NMHitIndex.TEXT)
+			{
+				plugin.updateList(item.getName(), false);
+				e.consume();
+				return e;
+			}
+		}
+		else if (SwingUtilities.isRightMouseButton(e))
+		{
+			if (kind == NMHitIndex.TEXT)
 			{
-				if (plugin.getTextBoxBounds() != null && plugin.getTextBoxBounds().getKey().contains(mousePos))
-				{
-					plugin.updateList(plugin.getTextBoxBounds().getValue().getName(), true);
-					e.consume();
-					return e;
-				}
+				plugin.updateList(item.getName(), true);
+				e.consume();
+				return e;
 			}
 		}
 
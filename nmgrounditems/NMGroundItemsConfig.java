@@ -78,6 +78,20 @@ public interface NMGroundItemsConfig extends Config
 	)
 	void setHiddenItems(String key);
 
+	@ConfigItem(
+		keyName = "highlightRules",
+		name = "Highlight Rules",
+		description = "Rules of the form condition -> action, one per line, checked before the lists. "
+			+ "Example: name ~ \"*rune*\" && qty > 100 && ge > 5k -> color #ff0. "
+			+ "Fields: name (~ == !=), qty, ge, ha, value, tradeable, stackable, mine. Actions: color #rrggbb, hide",
+		position = 2,
+		section = itemLists
+	)
+	default String highlightRules()
+	{
+		return "";
+	}
+
 	@ConfigItem(
 		keyName = "showHighlightedOnly",
 		name = "Show Highlighted items only",
@@ -427,6 +441,39 @@ public interface NMGroundItemsConfig extends Config
 		return false;
 	}
 
+	@ConfigItem(
+		keyName = "labelSprites",
+		name = "Cache label images",
+		description = "Draws item labels from cached images instead of rendering the text every frame",
+		position = 29
+	)
+	default boolean labelSprites()
+	{
+		return false;
+	}
+
+	@ConfigItem(
+		keyName = "summarizePiles",
+		name = "Summarize piles",
+		description = "Tiles with at least this many items show one summary label, expanded under the mouse or while the hotkey is held. 0 to disable.",
+		position = 29
+	)
+	default int summarizePiles()
+	{
+		return 0;
+	}
+
+	@ConfigItem(
+		keyName = "maxLabels",
+		name = "Max labels",
+		description = "Maximum number of items with a full label, the most valuable and highlighted items are picked first. Other items show as a count on their tile. 0 for no limit.",
+		position = 29
+	)
+	default int maxLabels()
+	{
+		return 0;
+	}
+
 	@ConfigItem(
 		keyName = "showLootbeamForHighlighted",
 		name = "Highlighted item lootbeams",
@@ -460,6 +507,28 @@ public interface NMGroundItemsConfig extends Config
 		return NMLootbeam.Style.MODERN;
 	}
 
+	@ConfigItem(
+		keyName = "maxLootbeams",
+		name = "Max lootbeams",
+		description = "Maximum number of lootbeams shown at once, the most valuable tiles are picked first. 0 for no limit.",
+		position = 32
+	)
+	default int maxLootbeams()
+	{
+		return 0;
+	}
+
+	@ConfigItem(
+		keyName = "lootbeamLightDistance",
+		name = "Light lootbeam distance",
+		description = "Lootbeams further than this many tiles away use the Light style. 0 to disable.",
+		position = 32
+	)
+	default int lootbeamLightDistance()
+	{
+		return 0;
+	}
+
 	@ConfigItem(
 		keyName = "hotkey",
 		name = "Hotkey",
@@ -40,25 +40,18 @@ import net.runelite.client.ui.overlay.OverlayUtil;
 import net.runelite.client.ui.overlay.components.BackgroundComponent;
 import net.runelite.client.ui.overlay.components.ProgressPieComponent;
 import net.runelite.client.ui.overlay.components.TextComponent;
-import net.runelite.client.util.QuantityFormatter;
 
 import javax.inject.Inject;
 import java.awt.*;
-import java.time.Duration;
-import java.time.Instant;
-import java.time.temporal.ChronoUnit;
-import java.util.AbstractMap.SimpleEntry;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
 
 import static net.runelite.client.plugins.nmgrounditems.config.NMItemHighlightMode.MENU;
 import static net.runelite.client.plugins.nmgrounditems.config.NMItemHighlightMode.NONE;
 
 public class NMGroundItemsOverlay extends Overlay
 {
-	private static final int MAX_DISTANCE = 2500;
+	static final int MAX_DISTANCE = 2500;
+	// MAX_DISTANCE in whole tiles, for picking the scene chunks to draw
+	static final int MAX_TILE_DISTANCE = (MAX_DISTANCE + Perspective.LOCAL_TILE_SIZE - 1) / Perspective.LOCAL_TILE_SIZE;
 	// We must offset the text on the z-axis such that
 	// it doesn't obscure the ground items below it.
 	private static final int OFFSET_Z = 20;
@@ -69,29 +62,20 @@ public class NMGroundItemsOverlay extends Overlay
 	private static final Color PUBLIC_TIMER_COLOR = Color.YELLOW;
 	private static final Color PRIVATE_TIMER_COLOR = Color.GREEN;
 	private static final int TIMER_OVERLAY_DIAMETER = 10;
-	private static final Duration DESPAWN_TIME_INSTANCE = Duration.ofMinutes(30);
-	private static final Duration DESPAWN_TIME_LOOT = Duration.ofMinutes(2);
-	private static final Duration DESPAWN_TIME_DROP = Duration.ofMinutes(3);
-	private static final Duration DESPAWN_TIME_TABLE = Duration.ofMinutes(10);
-	private static final int KRAKEN_REGION = 9116;
-	private static final int CLAN_HALL_REGION = 6997;
-	private static final int KBD_NMZ_REGION = 9033;
-	private static final int ZILYANA_REGION = 11602;
-	private static final int GRAARDOR_REGION = 11347;
-	private static final int KRIL_TSUTSAROTH_REGION = 11603;
-	private static final int KREEARRA_REGION = 11346;
-	private static final int NEX_REGION = 11601;
-	private static final int NIGHTMARE_REGION = 15515;
-	private static final int TEMPOROSS_REGION = 12078;
 
 	private final Client client;
 	private final NMGroundItemsPlugin plugin;
 	private final NMGroundItemsConfig config;
-	private final StringBuilder itemStringBuilder = new StringBuilder();
+	private final NMLabelCache labelCache = new NMLabelCache();
+	private final NMLabelSpriteCache spriteCache = new NMLabelSpriteCache();
 	private final BackgroundComponent backgroundComponent = new BackgroundComponent();
 	private final TextComponent textComponent = new TextComponent();
 	private final ProgressPieComponent progressPieComponent = new ProgressPieComponent();
-	private final Map<WorldPoint, Integer> offsetMap = new HashMap<>();
+	private final NMLabelLayout labelLayout = new NMLabelLayout();
+	private int[] visibleItems = new int[0];
+	// Hit indexes alternately built and published to the plugin
+	private final NMHitIndex hitIndexA = new NMHitIndex();
+	private final NMHitIndex hitIndexB = new NMHitIndex();
 
 	@Inject
 	private NMGroundItemsOverlay(Client client, NMGroundItemsPlugin plugin, NMGroundItemsConfig config)
@@ -122,98 +106,99 @@ public class NMGroundItemsOverlay extends Overlay
 			return null;
 		}
 
-		offsetMap.clear();
 		final LocalPoint localLocation = player.getLocalLocation();
+		final WorldPoint playerLocation = player.getWorldLocation();
 		final Point mousePos = client.getMouseCanvasPosition();
-		Collection<NMGroundItem> NMGroundItemList = plugin.getCollectedGroundItems().values();
-		NMGroundItem topNMGroundItem = null;
+		final NMRenderGrid renderGrid = plugin.getRenderGrid();
+		final NMRenderItem[] renderItems = renderGrid.getItems();
+		NMRenderItem topItem = null;
+		int topItemIndex = -1;
 
-		if (plugin.isHotKeyPressed())
+		// Only the scene chunks around the player can be within the draw distance
+		if (visibleItems.length < renderItems.length)
 		{
-			// Make copy of ground items because we are going to modify them here, and the array list supports our
-			// desired behaviour here
-			NMGroundItemList = new ArrayList<>(NMGroundItemList);
-			final java.awt.Point awtMousePos = new java.awt.Point(mousePos.getX(), mousePos.getY());
-			NMGroundItem NMGroundItem = null;
+			visibleItems = new int[renderItems.length];
+		}
+		final int visibleCount = renderGrid.query(playerLocation, MAX_TILE_DISTANCE, visibleItems);
 
-			for (NMGroundItem item : NMGroundItemList)
+		// The hovered item is the one whose box was drawn on top under the mouse last frame, and
+		// a pile stays expanded while the mouse is over its summary or one of its labels
+		final NMHitIndex previousHits = plugin.getHitIndex();
+		WorldPoint expandedPile = null;
+		synchronized (previousHits)
+		{
+			final int hit = previousHits.find(mousePos.getX(), mousePos.getY());
+			if (hit != -1 && previousHits.getKind(hit) == NMHitIndex.PILE)
 			{
-				item.setOffset(offsetMap.compute(item.getLocation(), (k, v) -> v != null ? v + 1 : 0));
-
-				if (NMGroundItem != null)
-				{
-					continue;
-				}
-
-				if (plugin.getTextBoxBounds() != null
-					&& item.equals(plugin.getTextBoxBounds().getValue())
-					&& plugin.getTextBoxBounds().getKey().contains(awtMousePos))
-				{
-					NMGroundItem = item;
-					continue;
-				}
-
-				if (plugin.getHiddenBoxBounds() != null
-					&& item.equals(plugin.getHiddenBoxBounds().getValue())
-					&& plugin.getHiddenBoxBounds().getKey().contains(awtMousePos))
-				{
-					NMGroundItem = item;
-					continue;
-				}
-
-				if (plugin.getHighlightBoxBounds() != null
-					&& item.equals(plugin.getHighlightBoxBounds().getValue())
-					&& plugin.getHighlightBoxBounds().getKey().contains(awtMousePos))
-				{
-					NMGroundItem = item;
-				}
+				expandedPile = previousHits.getItem(hit).getLocation();
 			}
-
-			if (NMGroundItem != null)
+			else if (hit != -1 && plugin.isHotKeyPressed() && previousHits.getGrid() == renderGrid)
 			{
-				NMGroundItemList.remove(NMGroundItem);
-				NMGroundItemList.add(NMGroundItem);
-				topNMGroundItem = NMGroundItem;
+				topItemIndex = previousHits.getGridIndex(hit);
+				topItem = renderItems[topItemIndex];
 			}
 		}
 
-		plugin.setTextBoxBounds(null);
-		plugin.setHiddenBoxBounds(null);
-		plugin.setHighlightBoxBounds(null);
+		final NMHitIndex hits = previousHits == hitIndexA ? hitIndexB : hitIndexA;
+		hits.reset(renderGrid, client.getCanvasWidth(), client.getCanvasHeight());
 
 		final boolean onlyShowLoot = config.onlyShowLoot();
 		final NMDespawnTimerMode groundItemTimers = config.groundItemTimers();
+		final int tick = client.getTickCount();
 		final boolean outline = config.textOutline();
+		final NMPriceDisplayMode priceDisplayMode = config.priceDisplayMode();
+		final boolean labelSprites = config.labelSprites();
 
-		for (NMGroundItem item : NMGroundItemList)
+		if (!labelSprites && !spriteCache.isEmpty())
 		{
-			final LocalPoint groundPoint = LocalPoint.fromWorld(client, item.getLocation());
-
-			if (groundPoint == null || localLocation.distanceTo(groundPoint) > MAX_DISTANCE
-				|| (onlyShowLoot && !item.isMine()))
-			{
-				continue;
-			}
+			spriteCache.clear();
+		}
 
-			final Color highlighted = plugin.getHighlighted(new NMNamedQuantity(item), item.getGePrice(), item.getHaPrice());
-			final Color hidden = plugin.getHidden(new NMNamedQuantity(item), item.getGePrice(), item.getHaPrice(), item.isTradeable());
+		if (!dontShowOverlay && !labelLayout.isValid(renderGrid, expandedPile, plugin.getConfigEpoch(), plugin.isHotKeyPressed(), playerLocation, fm.getFont(), client))
+		{
+			layoutLabels(renderGrid, expandedPile, visibleCount, localLocation, playerLocation, fm, priceDisplayMode, onlyShowLoot);
+		}
 
-			if (highlighted == null && !plugin.isHotKeyPressed())
+		for (int n = 0; n <= visibleCount; n++)
+		{
+			// The hovered item is drawn last so that it ends up on top
+			final int itemIndex;
+			if (n < visibleCount)
 			{
-				// Do not display hidden items
-				if (hidden != null)
+				itemIndex = visibleItems[n];
+				if (itemIndex == topItemIndex)
 				{
 					continue;
 				}
+			}
+			else if (topItemIndex != -1)
+			{
+				itemIndex = topItemIndex;
+			}
+			else
+			{
+				break;
+			}
 
-				// Do not display non-highlighted items
-				if (config.showHighlightedOnly())
-				{
-					continue;
-				}
+			final NMRenderItem item = renderItems[itemIndex];
+			final NMPileSummary pile = dontShowOverlay ? null : labelLayout.getPile(itemIndex);
+			if (pile != null)
+			{
+				drawPile(graphics, pile, labelLayout.getTextX(itemIndex), labelLayout.getTextY(itemIndex), fm, outline, hits, itemIndex);
+				continue;
 			}
 
-			final Color color = plugin.getItemColor(highlighted, hidden);
+			final LocalPoint groundPoint = LocalPoint.fromWorld(client, item.getLocation());
+
+			if (!isShown(item, groundPoint, localLocation, onlyShowLoot))
+			{
+				continue;
+			}
+
+			final NMItemClassification classification = item.getClassification();
+			final Color highlighted = classification.getHighlighted();
+			final Color hidden = classification.getHidden();
+			final Color color = classification.getColor();
 
 			if (config.highlightTiles())
 			{
@@ -241,70 +226,36 @@ public class NMGroundItemsOverlay extends Overlay
 				continue;
 			}
 
-			itemStringBuilder.append(item.getName());
-
-			if (item.getQuantity() > 1)
+			final int textX = labelLayout.getTextX(itemIndex);
+			if (textX == NMLabelLayout.NONE)
 			{
-				itemStringBuilder.append(" (")
-					.append(QuantityFormatter.quantityToStackSize(item.getQuantity()))
-					.append(')');
+				continue;
 			}
 
-			if (config.priceDisplayMode() == NMPriceDisplayMode.BOTH)
+			final int textY = labelLayout.getTextY(itemIndex);
+			final int count = labelLayout.getCount(itemIndex);
+			if (count > 0)
 			{
-				if (item.getGePrice() > 0)
-				{
-					itemStringBuilder.append(" (GE: ")
-						.append(QuantityFormatter.quantityToStackSize(item.getGePrice()))
-						.append(" gp)");
-				}
-
-				if (item.getHaPrice() > 0)
-				{
-					itemStringBuilder.append(" (HA: ")
-						.append(QuantityFormatter.quantityToStackSize(item.getHaPrice()))
-						.append(" gp)");
-				}
-			}
-			else if (config.priceDisplayMode() != NMPriceDisplayMode.OFF)
-			{
-				final int price = config.priceDisplayMode() == NMPriceDisplayMode.GE
-					? item.getGePrice()
-					: item.getHaPrice();
-
-				if (price > 0)
-				{
-					itemStringBuilder
-						.append(" (")
-						.append(QuantityFormatter.quantityToStackSize(price))
-						.append(" gp)");
-				}
+				textComponent.setText(countText(count));
+				textComponent.setColor(config.defaultColor());
+				textComponent.setOutline(outline);
+				textComponent.setPosition(new java.awt.Point(textX, textY));
+				textComponent.render(graphics);
+				continue;
 			}
 
-			final String itemString = itemStringBuilder.toString();
-			itemStringBuilder.setLength(0);
-
-			final Point textPoint = Perspective.getCanvasTextLocation(client,
-				graphics,
-				groundPoint,
-				itemString,
-				item.getHeight() + OFFSET_Z);
+			final NMLabelCache.Label label = labelCache.get(item, priceDisplayMode, fm, plugin.getConfigEpoch());
+			final String itemString = label.getText();
 
-			if (textPoint == null)
+			if (expandedPile != null && !plugin.isHotKeyPressed() && expandedPile.equals(item.getLocation()))
 			{
-				continue;
+				hits.add(new Rectangle(textX - 2, textY - fm.getHeight() - 2, label.getWidth() + 4, fm.getHeight() + 4),
+					NMHitIndex.PILE, itemIndex, item);
 			}
 
-			final int offset = plugin.isHotKeyPressed()
-				? item.getOffset()
-				: offsetMap.compute(item.getLocation(), (k, v) -> v != null ? v + 1 : 0);
-
-			final int textX = textPoint.getX();
-			final int textY = textPoint.getY() - (STRING_GAP * offset);
-
 			if (plugin.isHotKeyPressed())
 			{
-				final int stringWidth = fm.stringWidth(itemString);
+				final int stringWidth = label.getWidth();
 				final int stringHeight = fm.getHeight();
 
 				// Item bounds
@@ -328,218 +279,231 @@ public class NMGroundItemsOverlay extends Overlay
 				boolean mouseInHiddenBox = itemHiddenBox.contains(mousePos.getX(), mousePos.getY());
 				boolean mouseInHighlightBox = itemHighlightBox.contains(mousePos.getX(), mousePos.getY());
 
-				if (mouseInBox)
-				{
-					plugin.setTextBoxBounds(new SimpleEntry<>(itemBounds, item));
-				}
-				else if (mouseInHiddenBox)
-				{
-					plugin.setHiddenBoxBounds(new SimpleEntry<>(itemHiddenBox, item));
-
-				}
-				else if (mouseInHighlightBox)
-				{
-					plugin.setHighlightBoxBounds(new SimpleEntry<>(itemHighlightBox, item));
-				}
+				hits.add(itemBounds, NMHitIndex.TEXT, itemIndex, item);
+				hits.add(itemHiddenBox, NMHitIndex.HIDDEN, itemIndex, item);
+				hits.add(itemHighlightBox, NMHitIndex.HIGHLIGHT, itemIndex, item);
 
-				boolean topItem = topNMGroundItem == item;
+				boolean isTopItem = topItem == item;
 
 				// Draw background if hovering
-				if (topItem && (mouseInBox || mouseInHiddenBox || mouseInHighlightBox))
+				if (isTopItem && (mouseInBox || mouseInHiddenBox || mouseInHighlightBox))
 				{
 					backgroundComponent.setRectangle(itemBounds);
 					backgroundComponent.render(graphics);
 				}
 
 				// Draw hidden box
-				drawRectangle(graphics, itemHiddenBox, topItem && mouseInHiddenBox ? Color.RED : color, hidden != null, true);
+				drawRectangle(graphics, itemHiddenBox, isTopItem && mouseInHiddenBox ? Color.RED : color, hidden != null, true);
 
 				// Draw highlight box
-				drawRectangle(graphics, itemHighlightBox, topItem && mouseInHighlightBox ? Color.GREEN : color, highlighted != null, false);
+				drawRectangle(graphics, itemHighlightBox, isTopItem && mouseInHighlightBox ? Color.GREEN : color, highlighted != null, false);
 			}
 
 			// When the hotkey is pressed the hidden/highlight boxes are drawn to the right of the text,
 			// so always draw the pie since it is on the left hand side.
 			if (groundItemTimers == NMDespawnTimerMode.PIE || plugin.isHotKeyPressed())
 			{
-				drawTimerPieOverlay(graphics, textX, textY, item);
+				drawTimerPieOverlay(graphics, textX, textY, item, tick);
 			}
 			else if (groundItemTimers == NMDespawnTimerMode.SECONDS || groundItemTimers == NMDespawnTimerMode.TICKS)
 			{
-				Instant despawnTime = calculateDespawnTime(item);
-				Color timerColor = getItemTimerColor(item);
-				if (despawnTime != null && timerColor != null)
+				if (hasTimer(item, tick))
 				{
-					long despawnTimeMillis = despawnTime.toEpochMilli() - Instant.now().toEpochMilli();
+					final int remainingTicks = item.getDespawnTick() - tick;
 					final String timerText;
 					if (groundItemTimers == NMDespawnTimerMode.SECONDS)
 					{
-						timerText = String.format(" - %.1f", despawnTimeMillis / 1000f);
+						timerText = String.format(" - %.1f", remainingTicks * 0.6f);
 					}
 					else // TICKS
 					{
-						timerText = String.format(" - %d", despawnTimeMillis / 600);
+						timerText = String.format(" - %d", remainingTicks);
 					}
 
 					// The timer text is drawn separately to have its own color, and is intentionally not included
 					// in the getCanvasTextLocation() call because the timer text can change per frame and we do not
 					// use a monospaced font, which causes the text location on screen to jump around slightly each frame.
 					textComponent.setText(timerText);
-					textComponent.setColor(timerColor);
+					textComponent.setColor(getItemTimerColor(item, tick));
 					textComponent.setOutline(outline);
-					textComponent.setPosition(new java.awt.Point(textX + fm.stringWidth(itemString), textY));
+					textComponent.setPosition(new java.awt.Point(textX + label.getWidth(), textY));
 					textComponent.render(graphics);
 				}
 			}
 
-			textComponent.setText(itemString);
-			textComponent.setColor(color);
-			textComponent.setOutline(outline);
-			textComponent.setPosition(new java.awt.Point(textX, textY));
-			textComponent.render(graphics);
+			if (labelSprites)
+			{
+				spriteCache.draw(graphics, itemString, color, outline, textX, textY);
+			}
+			else
+			{
+				textComponent.setText(itemString);
+				textComponent.setColor(color);
+				textComponent.setOutline(outline);
+				textComponent.setPosition(new java.awt.Point(textX, textY));
+				textComponent.render(graphics);
+			}
 		}
 
+		plugin.setHitIndex(hits);
 		return null;
 	}
 
-	private Instant calculateDespawnTime(NMGroundItem NMGroundItem)
+	private boolean isShown(NMRenderItem item, LocalPoint groundPoint, LocalPoint localLocation, boolean onlyShowLoot)
 	{
-		// We can only accurately guess despawn times for our own pvm loot, dropped items,
-		// and items we placed on tables
-		if (NMGroundItem.getLootType() != NMLootType.PVM
-			&& NMGroundItem.getLootType() != NMLootType.DROPPED
-			&& NMGroundItem.getLootType() != NMLootType.TABLE)
-		{
-			return null;
-		}
+		return groundPoint != null
+			&& localLocation.distanceTo(groundPoint) <= MAX_DISTANCE
+			&& item.isShown(onlyShowLoot, config.showHighlightedOnly(), plugin.isHotKeyPressed());
+	}
 
-		// Loot appears to others after 1 minute, and despawns after 2 minutes
-		// Dropped items appear to others after 1 minute, and despawns after 3 minutes
-		// Items in instances never appear to anyone and despawn after 30 minutes
+	/**
+	 * Computes the label positions of the visible items. Labels are placed in snapshot order, so
+	 * the items of a tile stack upwards in spawn order like before, while labels of neighbouring
+	 * tiles are also kept from overlapping.
+	 */
+	private void layoutLabels(NMRenderGrid renderGrid, WorldPoint expandedPile, int visibleCount, LocalPoint localLocation,
+		WorldPoint playerLocation, FontMetrics fm, NMPriceDisplayMode priceDisplayMode, boolean onlyShowLoot)
+	{
+		final boolean hotkey = plugin.isHotKeyPressed();
+		final NMRenderItem[] renderItems = renderGrid.getItems();
+		final int epoch = plugin.getConfigEpoch();
+		labelLayout.reset(renderGrid, expandedPile, epoch, hotkey, playerLocation, fm.getFont(), client);
 
-		Instant spawnTime = NMGroundItem.getSpawnTime();
-		if (spawnTime == null)
-		{
-			return null;
-		}
+		// Items over the label budget are counted per tile, the items of a tile are adjacent
+		int countIndex = -1;
+		int count = 0;
+		Point countPoint = null;
 
-		final Instant despawnTime;
-		Instant now = Instant.now();
-		if (client.isInInstancedRegion())
+		for (int n = 0; n < visibleCount; n++)
 		{
-			final int playerRegionID = WorldPoint.fromLocalInstance(client, client.getLocalPlayer().getLocalLocation()).getRegionID();
-			if (playerRegionID == KRAKEN_REGION)
-			{
-				// Items in the Kraken instance never despawn
-				return null;
-			}
-			else if (playerRegionID == KBD_NMZ_REGION)
+			final int itemIndex = visibleItems[n];
+			final NMRenderItem item = renderItems[itemIndex];
+
+			// A summarized pile gets one label in place of the labels of all of its items
+			final NMPileSummary pile = hotkey ? null : renderGrid.getPile(itemIndex);
+			if (pile != null && !pile.getLocation().equals(expandedPile))
 			{
-				// NMZ and the KBD lair uses the same region ID but NMZ uses planes 1-3 and KBD uses plane 0
-				if (client.getLocalPlayer().getWorldLocation().getPlane() == 0)
-				{
-					// Items in the KBD instance use the standard despawn timer
-					despawnTime = spawnTime.plus(NMGroundItem.getLootType() == NMLootType.DROPPED
-						? DESPAWN_TIME_DROP
-						: DESPAWN_TIME_LOOT);
-				}
-				else
+				while (n + 1 < visibleCount && renderItems[visibleItems[n + 1]].getLocation().equals(pile.getLocation()))
 				{
-					if (NMGroundItem.getLootType() == NMLootType.DROPPED)
-					{
-						// Dropped items in the NMZ instance never despawn
-						return null;
-					}
-					else
-					{
-						despawnTime = spawnTime.plus(DESPAWN_TIME_LOOT);
-					}
+					n++;
 				}
+
+				placePile(itemIndex, pile, localLocation, fm);
+				continue;
 			}
-			else if (playerRegionID == ZILYANA_REGION || playerRegionID == GRAARDOR_REGION ||
-				playerRegionID == KRIL_TSUTSAROTH_REGION || playerRegionID == KREEARRA_REGION ||
-				playerRegionID == NEX_REGION ||
-				playerRegionID == NIGHTMARE_REGION ||  playerRegionID == TEMPOROSS_REGION ||
-				playerRegionID == CLAN_HALL_REGION)
+
+			final LocalPoint groundPoint = LocalPoint.fromWorld(client, item.getLocation());
+
+			if (!isShown(item, groundPoint, localLocation, onlyShowLoot))
 			{
-				// GWD, Nightmare, and Tempoross instances use the normal despawn timers
-				despawnTime = spawnTime.plus(NMGroundItem.getLootType() == NMLootType.DROPPED
-					? DESPAWN_TIME_DROP
-					: DESPAWN_TIME_LOOT);
+				continue;
 			}
-			else
+
+			// Same as Perspective.getCanvasTextLocation, but with the cached label width
+			final Point canvasPoint = Perspective.localToCanvas(client, groundPoint, client.getPlane(), item.getHeight() + OFFSET_Z);
+			if (canvasPoint == null)
 			{
-				despawnTime = spawnTime.plus(DESPAWN_TIME_INSTANCE);
+				continue;
 			}
-		}
-		else
-		{
-			switch (NMGroundItem.getLootType())
+
+			// Every label is shown while the hotkey is held, so that any item can be hidden or highlighted
+			if (!hotkey && renderGrid.isCollapsed(itemIndex))
 			{
-				case DROPPED:
-					despawnTime = spawnTime.plus(DESPAWN_TIME_DROP);
-					break;
-				case TABLE:
-					despawnTime = spawnTime.plus(DESPAWN_TIME_TABLE);
-					break;
-				default:
-					despawnTime = spawnTime.plus(DESPAWN_TIME_LOOT);
-					break;
+				if (countIndex != -1 && !item.getLocation().equals(renderItems[countIndex].getLocation()))
+				{
+					placeCount(countIndex, count, countPoint, fm);
+					countIndex = -1;
+				}
+
+				if (countIndex == -1)
+				{
+					countIndex = itemIndex;
+					countPoint = canvasPoint;
+					count = 0;
+				}
+				count++;
+				continue;
 			}
+
+			final NMLabelCache.Label label = labelCache.get(item, priceDisplayMode, fm, epoch);
+			// With the hotkey held the hidden and highlight boxes sit to the right of the text
+			final int width = label.getWidth() + (hotkey ? 2 * (RECTANGLE_SIZE + 2) + 2 : 0);
+			labelLayout.place(itemIndex, canvasPoint.getX() - label.getWidth() / 2, canvasPoint.getY(), width, fm.getHeight(), STRING_GAP);
 		}
 
-		if (now.isBefore(spawnTime) || now.isAfter(despawnTime))
+		if (countIndex != -1)
 		{
-			// that's weird
-			return null;
+			placeCount(countIndex, count, countPoint, fm);
 		}
+	}
 
-		return despawnTime;
+	private void placeCount(int index, int count, Point canvasPoint, FontMetrics fm)
+	{
+		final int width = fm.stringWidth(countText(count));
+		labelLayout.placeCount(index, count, canvasPoint.getX() - width / 2, canvasPoint.getY(), width, fm.getHeight(), STRING_GAP);
 	}
 
-	private Color getItemTimerColor(NMGroundItem NMGroundItem)
+	private void placePile(int index, NMPileSummary pile, LocalPoint localLocation, FontMetrics fm)
 	{
-		// We can only accurately guess despawn times for our own pvm loot, dropped items,
-		// and items we placed on tables
-		if (NMGroundItem.getLootType() != NMLootType.PVM
-			&& NMGroundItem.getLootType() != NMLootType.DROPPED
-			&& NMGroundItem.getLootType() != NMLootType.TABLE)
+		final LocalPoint groundPoint = LocalPoint.fromWorld(client, pile.getLocation());
+		if (groundPoint == null || localLocation.distanceTo(groundPoint) > MAX_DISTANCE)
 		{
-			return null;
+			return;
 		}
 
-		final Instant spawnTime = NMGroundItem.getSpawnTime();
-		if (spawnTime == null)
+		final Point canvasPoint = Perspective.localToCanvas(client, groundPoint, client.getPlane(), pile.getTopItem().getHeight() + OFFSET_Z);
+		if (canvasPoint == null)
 		{
-			return null;
+			return;
 		}
 
-		final Instant now = Instant.now();
+		final int width = fm.stringWidth(pile.getText());
+		labelLayout.placePile(index, pile, canvasPoint.getX() - width / 2, canvasPoint.getY(), width, fm.getHeight(), STRING_GAP);
+	}
 
-		// If it has not yet been a minute, the item is private
-		if (client.isInInstancedRegion() || spawnTime.plus(1, ChronoUnit.MINUTES).isAfter(now))
-		{
-			return PRIVATE_TIMER_COLOR;
-		}
-		else
-		{
-			return PUBLIC_TIMER_COLOR;
-		}
+	private void drawPile(Graphics2D graphics, NMPileSummary pile, int textX, int textY, FontMetrics fm, boolean outline,
+		NMHitIndex hits, int index)
+	{
+		textComponent.setText(pile.getText());
+		textComponent.setColor(pile.getColor());
+		textComponent.setOutline(outline);
+		textComponent.setPosition(new java.awt.Point(textX, textY));
+		textComponent.render(graphics);
+
+		// Hovering the summary expands the pile on the next frame
+		final int width = fm.stringWidth(pile.getText());
+		hits.add(new Rectangle(textX - 2, textY - fm.getHeight() - 2, width + 4, fm.getHeight() + 4),
+			NMHitIndex.PILE, index, pile.getTopItem());
+	}
+
+	private static String countText(int count)
+	{
+		return "+" + count;
+	}
+
+	private static boolean hasTimer(NMRenderItem item, int tick)
+	{
+		// Despawn ticks are only known for our own pvm loot, dropped items and items we placed on tables
+		return item.getDespawnTick() != -1 && item.getSpawnTick() <= tick && tick <= item.getDespawnTick();
 	}
 
-	private void drawTimerPieOverlay(Graphics2D graphics, int textX, int textY, NMGroundItem NMGroundItem)
+	private static Color getItemTimerColor(NMRenderItem item, int tick)
 	{
-		Instant now = Instant.now();
-		Instant spawnTime = NMGroundItem.getSpawnTime();
-		Instant despawnTime = calculateDespawnTime(NMGroundItem);
-		Color fillColor = getItemTimerColor(NMGroundItem);
+		// If it has not yet been a minute, the item is private
+		return item.getPublicTick() == -1 || tick < item.getPublicTick()
+			? PRIVATE_TIMER_COLOR
+			: PUBLIC_TIMER_COLOR;
+	}
 
-		if (spawnTime == null || despawnTime == null || fillColor == null)
+	private void drawTimerPieOverlay(Graphics2D graphics, int textX, int textY, NMRenderItem item, int tick)
+	{
+		if (!hasTimer(item, tick))
 		{
 			return;
 		}
 
-		float percent = (float) (now.toEpochMilli() - spawnTime.toEpochMilli()) / (despawnTime.toEpochMilli() - spawnTime.toEpochMilli());
+		final Color fillColor = getItemTimerColor(item, tick);
+		float percent = (float) (tick - item.getSpawnTick()) / (item.getDespawnTick() - item.getSpawnTick());
 
 		progressPieComponent.setDiameter(TIMER_OVERLAY_DIAMETER);
 		// Shift over to not be on top of the text
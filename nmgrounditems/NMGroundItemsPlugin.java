@@ -28,15 +28,17 @@ package net.runelite.client.plugins.nmgrounditems;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.EvictingQueue;
-import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Table;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Ordering;
 import com.google.inject.Provides;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.*;
+import net.runelite.api.coords.LocalPoint;
 import net.runelite.api.coords.WorldPoint;
 import net.runelite.api.events.*;
 import net.runelite.api.widgets.WidgetInfo;
@@ -47,7 +49,6 @@ import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.events.ConfigChanged;
 import net.runelite.client.events.NpcLootReceived;
 import net.runelite.client.events.PlayerLootReceived;
-import net.runelite.client.game.ItemManager;
 import net.runelite.client.game.ItemStack;
 import net.runelite.client.input.KeyManager;
 import net.runelite.client.input.MouseManager;
@@ -58,21 +59,18 @@ import net.runelite.client.plugins.nmgrounditems.config.NMItemHighlightMode;
 import net.runelite.client.plugins.nmgrounditems.config.NMMenuHighlightMode;
 import net.runelite.client.ui.overlay.OverlayManager;
 import net.runelite.client.util.ColorUtil;
-import net.runelite.client.util.QuantityFormatter;
 import net.runelite.client.util.Text;
 
 import javax.inject.Inject;
 import java.awt.*;
-import java.time.Instant;
 import java.util.List;
 import java.util.Queue;
 import java.util.*;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
 
-import static java.lang.Boolean.FALSE;
-import static java.lang.Boolean.TRUE;
 import static net.runelite.client.plugins.nmgrounditems.config.NMMenuHighlightMode.*;
 
 @PluginDescriptor(
@@ -80,6 +78,7 @@ import static net.runelite.client.plugins.nmgrounditems.config.NMMenuHighlightMo
 	description = "Highlight ground items and/or show price information",
 	tags = {"grand", "exchange", "high", "alchemy", "prices", "highlight", "overlay", "lootbeam"}
 )
+@Slf4j
 public class NMGroundItemsPlugin extends Plugin
 {
 	@Value
@@ -89,20 +88,43 @@ public class NMGroundItemsPlugin extends Plugin
 		private final Color color;
 	}
 
-	// ItemID for coins
-	private static final int COINS = ItemID.COINS_995;
-
-	@Getter(AccessLevel.PACKAGE)
-	@Setter(AccessLevel.PACKAGE)
-	private Map.Entry<Rectangle, NMGroundItem> textBoxBounds;
-
-	@Getter(AccessLevel.PACKAGE)
-	@Setter(AccessLevel.PACKAGE)
-	private Map.Entry<Rectangle, NMGroundItem> hiddenBoxBounds;
+	@Value
+	private static class LootbeamCandidate
+	{
+		private final WorldPoint location;
+		private final Color color;
+		private final boolean highlighted;
+		private final int value;
+	}
 
+	// Config keys by what has to be redone when they change. The remaining keys are only read by
+	// the overlay and the lootbeams.
+	private static final Set<String> LIST_KEYS = ImmutableSet.of("highlightedItems", "hiddenItems");
+	private static final Set<String> COLOR_KEYS = ImmutableSet.of("defaultColor", "highlightedColor", "hiddenColor",
+		"lowValueColor", "mediumValueColor", "highValueColor", "insaneValueColor");
+	private static final Set<String> RULE_KEYS = ImmutableSet.of("highlightRules", "dontHideUntradeables",
+		"highlightValueCalculation", "hideUnderValue", "lowValuePrice", "mediumValuePrice", "highValuePrice", "insaneValuePrice");
+	private static final Set<String> LOOTBEAM_KEYS = ImmutableSet.of("showLootbeamForHighlighted", "showLootbeamTier",
+		"lootbeamStyle", "maxLootbeams", "lootbeamLightDistance", "onlyShowLoot");
+
+	// Highlighted tiles win over price tiers, then the most valuable tile wins
+	private static final Ordering<LootbeamCandidate> LOOTBEAM_PRIORITY = Ordering.from(
+		Comparator.comparing(LootbeamCandidate::isHighlighted)
+			.thenComparingInt(LootbeamCandidate::getValue));
+
+	// Ticks past the expected despawn before an item is checked for on its tile
+	private static final int DESPAWN_GRACE_TICKS = 2;
+	// Ticks between checks for items which do not have a known despawn time
+	private static final int DESPAWN_RECHECK_TICKS = 500;
+	// Ticks between checks for updated GE prices
+	private static final int PRICE_REFRESH_TICKS = 100;
+	// Minimum ticks between drop notifications, drops in between are merged into the next one
+	private static final int NOTIFICATION_INTERVAL_TICKS = 3;
+
+	// Label and box bounds of the last frame drawn with the hotkey held
 	@Getter(AccessLevel.PACKAGE)
 	@Setter(AccessLevel.PACKAGE)
-	private Map.Entry<Rectangle, NMGroundItem> highlightBoxBounds;
+	private volatile NMHitIndex hitIndex = new NMHitIndex();
 
 	@Getter(AccessLevel.PACKAGE)
 	@Setter(AccessLevel.PACKAGE)
@@ -133,9 +155,6 @@ public class NMGroundItemsPlugin extends Plugin
 	@Inject
 	private ClientThread clientThread;
 
-	@Inject
-	private ItemManager itemManager;
-
 	@Inject
 	private OverlayManager overlayManager;
 
@@ -151,14 +170,53 @@ public class NMGroundItemsPlugin extends Plugin
 	@Inject
 	private ScheduledExecutorService executor;
 
+	@Inject
+	private NMLootbeamCache lootbeamCache;
+
+	@Inject
+	private NMItemTable itemTable;
+
 	@Getter
-	private final Table<WorldPoint, Integer, NMGroundItem> collectedGroundItems = HashBasedTable.create();
+	private final NMGroundItemIndex collectedGroundItems = new NMGroundItemIndex();
 	private List<PriceHighlight> priceChecks = ImmutableList.of();
-	private LoadingCache<NMNamedQuantity, Boolean> highlightedItems;
-	private LoadingCache<NMNamedQuantity, Boolean> hiddenItems;
+	// Bumped when the rules change to invalidate every memoized NMItemClassification. Items start
+	// at 0, so this starts at 1 to force classification of items seen before the first reset.
+	private volatile int classificationEpoch = 1;
+	// Bumped on every config change which affects what is drawn, to invalidate the overlay caches
+	@Getter(AccessLevel.PACKAGE)
+	private volatile int configEpoch = 1;
+
+	// Snapshot of collectedGroundItems read by the overlay. It is rebuilt on the client tick after
+	// the items or the config changed and replaced as a whole, so it must never be modified.
+	@Getter(AccessLevel.PACKAGE)
+	private volatile NMRenderGrid renderGrid = NMRenderGrid.EMPTY;
+	private boolean renderItemsDirty;
+	private int renderItemsEpoch;
+	// Player tile the label budget was selected from, which depends on the distance to the items
+	private WorldPoint labelBudgetLocation;
+	private int[] labelCandidates = new int[0];
+	private NMWildcardMatchLoader highlightedItemsLoader;
+	private NMWildcardMatchLoader hiddenItemsLoader;
+	private LoadingCache<String, List<NMItemThreshold>> highlightedItems;
+	private LoadingCache<String, List<NMItemThreshold>> hiddenItems;
+	// Compiled from the rules, the lists, the price tiers and the hide under value by reset()
+	private volatile NMItemRules itemRules;
 	private final Queue<Integer> droppedItemQueue = EvictingQueue.create(16); // recently dropped items
 	private int lastUsedItem;
+	private NMDespawnPolicy despawnPolicy = NMDespawnPolicy.OVERWORLD;
+	private boolean despawnPolicyDirty;
+	private final NMDespawnWheel despawnWheel = new NMDespawnWheel();
+	private int lastPriceRefreshTick;
+	private final NMDropNotification dropNotification = new NMDropNotification();
+	private int lastNotificationTick;
 	private final Map<WorldPoint, NMLootbeam> lootbeams = new HashMap<>();
+	// Tiles whose lootbeam must be recomputed, reconciled once per client tick
+	private final Set<WorldPoint> dirtyLootbeamTiles = new HashSet<>();
+	// Every tile which qualifies for a lootbeam, of which at most maxLootbeams get one
+	private final Map<WorldPoint, LootbeamCandidate> lootbeamCandidates = new HashMap<>();
+	private WorldPoint lootbeamPlayerLocation;
+	// Fingerprint of the menu as left by the last collapse pass
+	private long menuFingerprint;
 
 	@Provides
 	NMGroundItemsConfig provideConfig(ConfigManager configManager)
@@ -174,6 +232,7 @@ public class NMGroundItemsPlugin extends Plugin
 		keyManager.registerKeyListener(hotkeyListener);
 		executor.execute(this::reset);
 		lastUsedItem = -1;
+		despawnPolicyDirty = true;
 	}
 
 	@Override
@@ -186,18 +245,51 @@ public class NMGroundItemsPlugin extends Plugin
 		highlightedItems = null;
 		hiddenItems.invalidateAll();
 		hiddenItems = null;
+		highlightedItemsLoader = null;
+		hiddenItemsLoader = null;
 		hiddenItemList = null;
 		highlightedItemsList = null;
 		collectedGroundItems.clear();
-		clientThread.invokeLater(this::removeAllLootbeams);
+		despawnWheel.clear();
+		dropNotification.clear();
+		renderGrid = NMRenderGrid.EMPTY;
+		clientThread.invokeLater(() ->
+		{
+			dirtyLootbeamTiles.clear();
+			lootbeamCandidates.clear();
+			removeAllLootbeams();
+			lootbeamCache.clear();
+			itemTable.clear();
+		});
 	}
 
 	@Subscribe
 	public void onConfigChanged(ConfigChanged event)
 	{
-		if (event.getGroup().equals("nmgrounditems"))
+		if (!event.getGroup().equals("nmgrounditems"))
+		{
+			return;
+		}
+
+		final String key = event.getKey();
+		if (LIST_KEYS.contains(key))
 		{
-			executor.execute(this::reset);
+			executor.execute(() -> applyListChange(key.equals("hiddenItems")));
+		}
+		else if (COLOR_KEYS.contains(key) || RULE_KEYS.contains(key))
+		{
+			executor.execute(() -> applyRuleChange(COLOR_KEYS.contains(key)));
+		}
+		else
+		{
+			executor.execute(() ->
+			{
+				configEpoch++;
+				if (LOOTBEAM_KEYS.contains(key))
+				{
+					clientThread.invokeLater(this::handleLootbeams);
+				}
+			});
 		}
 	}
 
@@ -207,18 +299,106 @@ public class NMGroundItemsPlugin extends Plugin
 		if (event.getGameState() == GameState.LOADING)
 		{
 			collectedGroundItems.clear();
-			lootbeams.clear();
+			despawnWheel.clear();
+			renderItemsDirty = true;
+			// Return the beams to the pool, they are recreated for the new scene as items spawn
+			dirtyLootbeamTiles.clear();
+			lootbeamCandidates.clear();
+			removeAllLootbeams();
+		}
+		else if (event.getGameState() == GameState.LOGGED_IN)
+		{
+			// The region rules depend on the player's location, which is only known once loading is done
+			despawnPolicyDirty = true;
 		}
 	}
 
+	@Subscribe
+	public void onGameTick(GameTick event)
+	{
+		if (despawnPolicyDirty && client.getLocalPlayer() != null)
+		{
+			despawnPolicyDirty = false;
+			despawnPolicy = NMDespawnPolicy.resolve(client);
+			for (NMGroundItem groundItem : collectedGroundItems)
+			{
+				updateDespawnTicks(groundItem);
+			}
+			renderItemsDirty = true;
+		}
+
+		despawnWheel.advance(client.getTickCount(), this::expireGroundItem);
+
+		if (client.getTickCount() - lastPriceRefreshTick >= PRICE_REFRESH_TICKS)
+		{
+			lastPriceRefreshTick = client.getTickCount();
+			refreshPrices();
+		}
+
+		sendDropNotification();
+	}
+
+	/**
+	 * Sends the drops collected since the last notification as one notification, at most once
+	 * every few ticks. The notifier is called on the executor so tray and sound work never
+	 * holds up the client thread.
+	 */
+	private void sendDropNotification()
+	{
+		final int tick = client.getTickCount();
+		if (dropNotification.isEmpty() || tick - lastNotificationTick < NOTIFICATION_INTERVAL_TICKS)
+		{
+			return;
+		}
+
+		lastNotificationTick = tick;
+		final String message = dropNotification.build();
+		executor.execute(() -> notifier.notify(message));
+	}
+
+	/**
+	 * Picks up GE prices refreshed by the item manager. Only the items whose price changed are
+	 * reclassified, and only the tiles where that changed the highlight or the value get their
+	 * lootbeam updated, since the value ranks the tile against the lootbeam budget.
+	 */
+	private void refreshPrices()
+	{
+		final BitSet changedIds = new BitSet();
+		itemTable.refreshPrices(changedIds::set);
+		if (changedIds.isEmpty())
+		{
+			return;
+		}
+
+		for (NMGroundItem groundItem : collectedGroundItems)
+		{
+			if (!changedIds.get(groundItem.getId()))
+			{
+				continue;
+			}
+
+			// The price is part of the classification, so the old one is stale now
+			final NMItemClassification previous = groundItem.getClassification();
+			final NMItemClassification classification = classify(groundItem);
+			if (previous == null || previous.getValue() != classification.getValue()
+				|| !Objects.equals(previous.getHighlighted(), classification.getHighlighted()))
+			{
+				dirtyLootbeamTiles.add(groundItem.getLocation());
+			}
+		}
+
+		renderItemsDirty = true;
+	}
+
 	@Subscribe
 	public void onItemSpawned(ItemSpawned itemSpawned)
 	{
 		TileItem item = itemSpawned.getItem();
 		Tile tile = itemSpawned.getTile();
+		WorldPoint location = tile.getWorldLocation();
 
-		NMGroundItem groundItem = buildGroundItem(tile, item);
-		NMGroundItem existing = collectedGroundItems.get(tile.getWorldLocation(), item.getId());
+		NMGroundItem groundItem = buildGroundItem(tile, location, item);
+		NMGroundItem existing = collectedGroundItems.get(location, item.getId());
 		if (existing != null)
 		{
 			existing.setQuantity(existing.getQuantity() + groundItem.getQuantity());
@@ -226,15 +406,17 @@ public class NMGroundItemsPlugin extends Plugin
 		}
 		else
 		{
-			collectedGroundItems.put(tile.getWorldLocation(), item.getId(), groundItem);
+			collectedGroundItems.put(groundItem);
 		}
 
+		renderItemsDirty = true;
+
 		if (!config.onlyShowLoot())
 		{
 			notifyHighlightedItem(groundItem);
 		}
 
-		handleLootbeam(tile.getWorldLocation());
+		dirtyLootbeamTiles.add(location);
 	}
 
 	@Subscribe
@@ -242,8 +424,9 @@ public class NMGroundItemsPlugin extends Plugin
 	{
 		TileItem item = itemDespawned.getItem();
 		Tile tile = itemDespawned.getTile();
+		WorldPoint location = tile.getWorldLocation();
 
-		NMGroundItem groundItem = collectedGroundItems.get(tile.getWorldLocation(), item.getId());
+		NMGroundItem groundItem = collectedGroundItems.get(location, item.getId());
 		if (groundItem == null)
 		{
 			return;
@@ -251,7 +434,8 @@ public class NMGroundItemsPlugin extends Plugin
 
 		if (groundItem.getQuantity() <= item.getQuantity())
 		{
-			collectedGroundItems.remove(tile.getWorldLocation(), item.getId());
+			collectedGroundItems.remove(location, item.getId());
+			despawnWheel.cancel(groundItem);
 		}
 		else
 		{
@@ -259,10 +443,12 @@ public class NMGroundItemsPlugin extends Plugin
 			// When picking up an item when multiple stacks appear on the ground,
 			// it is not known which item is picked up, so we invalidate the spawn
 			// time
-			groundItem.setSpawnTime(null);
+			groundItem.setSpawnTick(-1);
+			updateDespawnTicks(groundItem);
 		}
 
-		handleLootbeam(tile.getWorldLocation());
+		renderItemsDirty = true;
+		dirtyLootbeamTiles.add(location);
 	}
 
 	@Subscribe
@@ -270,17 +456,19 @@ public class NMGroundItemsPlugin extends Plugin
 	{
 		TileItem item = itemQuantityChanged.getItem();
 		Tile tile = itemQuantityChanged.getTile();
+		WorldPoint location = tile.getWorldLocation();
 		int oldQuantity = itemQuantityChanged.getOldQuantity();
 		int newQuantity = itemQuantityChanged.getNewQuantity();
 
 		int diff = newQuantity - oldQuantity;
-		NMGroundItem groundItem = collectedGroundItems.get(tile.getWorldLocation(), item.getId());
+		NMGroundItem groundItem = collectedGroundItems.get(location, item.getId());
 		if (groundItem != null)
 		{
 			groundItem.setQuantity(groundItem.getQuantity() + diff);
+			renderItemsDirty = true;
 		}
 
-		handleLootbeam(tile.getWorldLocation());
+		dirtyLootbeamTiles.add(location);
 	}
 
 	@Subscribe
@@ -299,6 +487,16 @@ public class NMGroundItemsPlugin extends Plugin
 
 	@Subscribe
 	public void onClientTick(ClientTick event)
+	{
+		publishRenderItems();
+		handleDirtyLootbeams();
+		processMenuEntries();
+	}
+
+	/**
+	 * Collapses the ground item entries of the menu in one pass over the final entry array.
+	 */
+	private void processMenuEntries()
 	{
 		if (!config.collapseEntries())
 		{
@@ -306,9 +504,97 @@ public class NMGroundItemsPlugin extends Plugin
 		}
 
 		final MenuEntry[] menuEntries = client.getMenuEntries();
+
+		// Skip menus which have not changed since the last pass, such as an open menu
+		final long fingerprint = fingerprint(menuEntries);
+		if (fingerprint == menuFingerprint)
+		{
+			return;
+		}
+
+		final MenuEntry[] newEntries = collapseMenuEntries(menuEntries);
+		if (newEntries != menuEntries)
+		{
+			client.setMenuEntries(newEntries);
+		}
+
+		menuFingerprint = fingerprint(newEntries);
+	}
+
+	/**
+	 * Decorates each ground item entry as it is added. The client rebuilds the entries every
+	 * frame while the menu is closed, so this keeps the hover text and the left-click option
+	 * decorated on every frame, and only touches the added entry rather than the whole menu.
+	 */
+	@Subscribe
+	public void onMenuEntryAdded(MenuEntryAdded event)
+	{
+		final MenuEntry entry = event.getMenuEntry();
+		final MenuAction type = entry.getType();
+		if (!(type == MenuAction.GROUND_ITEM_FIRST_OPTION || type == MenuAction.GROUND_ITEM_SECOND_OPTION ||
+			type == MenuAction.GROUND_ITEM_THIRD_OPTION || type == MenuAction.GROUND_ITEM_FOURTH_OPTION ||
+			type == MenuAction.GROUND_ITEM_FIFTH_OPTION || type == MenuAction.WIDGET_TARGET_ON_GROUND_ITEM))
+		{
+			return;
+		}
+
+		final int tileKey = NMGroundItemIndex.packTile(client.getBaseX() + entry.getParam0(),
+			client.getBaseY() + entry.getParam1(), client.getPlane());
+		final NMGroundItem groundItem = collectedGroundItems.get(tileKey, entry.getIdentifier());
+		if (groundItem == null)
+		{
+			return;
+		}
+
+		final int quantity = groundItem.getQuantity();
+		final NMItemClassification classification = classify(groundItem);
+		final Color hidden = classification.getHidden();
+		final Color highlighted = classification.getHighlighted();
+		final Color color = classification.getColor();
+		final boolean canBeRecolored = highlighted != null || (hidden != null && config.recolorMenuHiddenItems());
+
+		if ((config.itemHighlightMode() == NMItemHighlightMode.MENU || config.itemHighlightMode() == NMItemHighlightMode.BOTH) &&
+			(color != null && canBeRecolored && !color.equals(config.defaultColor())))
+		{
+			final NMMenuHighlightMode mode = config.menuHighlightMode();
+
+			if (mode == BOTH || mode == OPTION)
+			{
+				entry.setOption(ColorUtil.prependColorTag(entry.getOption(), color));
+			}
+
+			if (mode == BOTH || mode == NAME)
+			{
+				// <col=ff9040>Logs
+				// <col=00ff00>Telekinetic Grab</col><col=ffffff> -> <col=ff9040>Logs
+				String target = entry.getTarget();
+
+				int i = target.lastIndexOf('>');
+				entry.setTarget(target.substring(0, i - 11) + ColorUtil.colorTag(color) + target.substring(i + 1));
+			}
+		}
+
+		if (config.showMenuItemQuantities() && groundItem.isStackable() && quantity > 1)
+		{
+			entry.setTarget(entry.getTarget() + " (" + quantity + ")");
+		}
+
+		if (hidden != null && highlighted == null && config.deprioritizeHiddenItems())
+		{
+			entry.setDeprioritized(true);
+		}
+	}
+
+	/**
+	 * Returns the menu with duplicate ground item entries merged, or the same array if there
+	 * was nothing to merge.
+	 */
+	private MenuEntry[] collapseMenuEntries(MenuEntry[] menuEntries)
+	{
 		final List<NMMenuEntryWithCount> newEntries = new ArrayList<>(menuEntries.length);
+		final Map<NMMenuEntryWithCount.Key, NMMenuEntryWithCount> groundItemEntries = new HashMap<>();
+		boolean collapsed = false;
 
-		outer:
 		for (int i = menuEntries.length - 1; i >= 0; i--)
 		{
 			MenuEntry menuEntry = menuEntries[i];
@@ -318,23 +604,34 @@ public class NMGroundItemsPlugin extends Plugin
 				|| menuType == MenuAction.GROUND_ITEM_THIRD_OPTION || menuType == MenuAction.GROUND_ITEM_FOURTH_OPTION
 				|| menuType == MenuAction.GROUND_ITEM_FIFTH_OPTION || menuType == MenuAction.EXAMINE_ITEM_GROUND)
 			{
-				for (NMMenuEntryWithCount entryWCount : newEntries)
+				final NMMenuEntryWithCount.Key key = NMMenuEntryWithCount.Key.of(menuEntry);
+				final NMMenuEntryWithCount existing = groundItemEntries.get(key);
+				if (existing != null)
 				{
-					if (entryWCount.getEntry().equals(menuEntry))
-					{
-						entryWCount.increment();
-						continue outer;
-					}
+					existing.increment();
+					collapsed = true;
+					continue;
 				}
+
+				final NMMenuEntryWithCount entryWCount = new NMMenuEntryWithCount(menuEntry);
+				groundItemEntries.put(key, entryWCount);
+				newEntries.add(entryWCount);
+				continue;
 			}
 
 			newEntries.add(new NMMenuEntryWithCount(menuEntry));
 		}
 
-		Collections.reverse(newEntries);
+		if (!collapsed)
+		{
+			return menuEntries;
+		}
 
-		client.setMenuEntries(newEntries.stream().map(e ->
+		// The entries were collected top to bottom, the menu array is ordered bottom to top
+		final MenuEntry[] collapsedEntries = new MenuEntry[newEntries.size()];
+		for (int i = 0; i < collapsedEntries.length; i++)
 		{
+			final NMMenuEntryWithCount e = newEntries.get(collapsedEntries.length - 1 - i);
 			final MenuEntry entry = e.getEntry();
 			final int count = e.getCount();
 			if (count > 1)
@@ -342,19 +639,172 @@ public class NMGroundItemsPlugin extends Plugin
 				entry.setTarget(entry.getTarget() + " x " + count);
 			}
 
-			return entry;
-		}).toArray(MenuEntry[]::new));
+			collapsedEntries[i] = entry;
+		}
+
+		return collapsedEntries;
+	}
+
+	private static long fingerprint(MenuEntry[] menuEntries)
+	{
+		long hash = menuEntries.length;
+		for (MenuEntry entry : menuEntries)
+		{
+			hash = hash * 0x100000001B3L + Objects.hashCode(entry.getOption());
+			hash = hash * 0x100000001B3L + Objects.hashCode(entry.getTarget());
+			hash = hash * 0x100000001B3L + entry.getIdentifier();
+			hash = hash * 0x100000001B3L + entry.getType().ordinal();
+			hash = hash * 0x100000001B3L + ((long) entry.getParam0() << 32 | entry.getParam1() & 0xFFFFFFFFL);
+			hash = hash * 0x100000001B3L + (entry.isDeprioritized() ? 1 : 0);
+		}
+		return hash;
+	}
+
+	private void publishRenderItems()
+	{
+		final int epoch = configEpoch;
+		final boolean rebuild = renderItemsDirty || renderItemsEpoch != epoch;
+
+		// The label budget depends on the player's tile, but moving only reselects the labels
+		final int maxLabels = config.maxLabels();
+		final Player player = client.getLocalPlayer();
+		final WorldPoint budgetLocation = maxLabels > 0 && collectedGroundItems.size() > maxLabels && player != null
+			? player.getWorldLocation()
+			: null;
+		if (!rebuild && Objects.equals(budgetLocation, labelBudgetLocation))
+		{
+			return;
+		}
+
+		NMRenderGrid grid = renderGrid;
+		if (rebuild)
+		{
+			final NMRenderItem[] snapshot = new NMRenderItem[collectedGroundItems.size()];
+			int i = 0;
+			for (NMGroundItem item : collectedGroundItems)
+			{
+				// Unchanged items keep their previous record
+				final NMItemClassification classification = classify(item);
+				NMRenderItem renderItem = item.getRenderItem();
+				if (renderItem == null || !renderItem.isCurrent(item, classification))
+				{
+					renderItem = new NMRenderItem(item, classification);
+					item.setRenderItem(renderItem);
+				}
+				snapshot[i++] = renderItem;
+			}
+
+			final int summarizePiles = config.summarizePiles();
+			final NMPileSummary[] piles = summarizePiles > 0 ? summarizePiles(snapshot, summarizePiles) : null;
+			grid = new NMRenderGrid(snapshot, piles, client.getBaseX(), client.getBaseY());
+			renderItemsDirty = false;
+			renderItemsEpoch = epoch;
+		}
+
+		renderGrid = grid.withLabelled(budgetLocation != null ? selectLabels(grid, maxLabels, player) : null);
+		labelBudgetLocation = budgetLocation;
+	}
+
+	/**
+	 * Picks the items of the grid which get a label, among the items the overlay would draw from
+	 * the player's location. Only the chunks around the player are visited.
+	 */
+	private BitSet selectLabels(NMRenderGrid grid, int maxLabels, Player player)
+	{
+		final NMRenderItem[] items = grid.getItems();
+		if (labelCandidates.length < items.length)
+		{
+			labelCandidates = new int[items.length];
+		}
+
+		final int count = grid.query(player.getWorldLocation(), NMGroundItemsOverlay.MAX_TILE_DISTANCE, labelCandidates);
+		final LocalPoint localLocation = player.getLocalLocation();
+		final boolean onlyShowLoot = config.onlyShowLoot();
+		final boolean showHighlightedOnly = config.showHighlightedOnly();
+
+		return NMLabelBudget.select(items, labelCandidates, count, maxLabels, item ->
+		{
+			if (!item.isShown(onlyShowLoot, showHighlightedOnly, false))
+			{
+				return false;
+			}
+
+			final LocalPoint groundPoint = LocalPoint.fromWorld(client, item.getLocation());
+			return groundPoint != null && localLocation.distanceTo(groundPoint) <= NMGroundItemsOverlay.MAX_DISTANCE;
+		});
+	}
+
+	/**
+	 * Aggregates every tile of the snapshot holding at least minItems shown items. The snapshot
+	 * lists the items tile by tile, so each tile is one run of the array.
+	 */
+	private NMPileSummary[] summarizePiles(NMRenderItem[] snapshot, int minItems)
+	{
+		final NMPileSummary[] piles = new NMPileSummary[snapshot.length];
+		final boolean onlyShowLoot = config.onlyShowLoot();
+		final boolean showHighlightedOnly = config.showHighlightedOnly();
+
+		int start = 0;
+		while (start < snapshot.length)
+		{
+			final WorldPoint location = snapshot[start].getLocation();
+			int end = start + 1;
+			while (end < snapshot.length && snapshot[end].getLocation().equals(location))
+			{
+				end++;
+			}
+
+			if (end - start >= minItems)
+			{
+				int count = 0;
+				long value = 0;
+				NMRenderItem topItem = null;
+				for (int i = start; i < end; i++)
+				{
+					// Only the items which would get a label count towards the pile
+					final NMRenderItem item = snapshot[i];
+					if (!item.isShown(onlyShowLoot, showHighlightedOnly, false))
+					{
+						continue;
+					}
+
+					final NMItemClassification classification = item.getClassification();
+
+					count++;
+					value += classification.getValue();
+					if (topItem == null || classification.getValue() > topItem.getClassification().getValue())
+					{
+						topItem = item;
+					}
+				}
+
+				if (count >= minItems)
+				{
+					piles[start] = new NMPileSummary(location, count, value, topItem);
+				}
+			}
+
+			start = end;
+		}
+
+		return piles;
 	}
 
 	private void lootReceived(Collection<ItemStack> items, NMLootType lootType)
 	{
 		for (ItemStack itemStack : items)
 		{
-			WorldPoint location = WorldPoint.fromLocal(client, itemStack.getLocation());
-			NMGroundItem groundItem = collectedGroundItems.get(location, itemStack.getId());
+			final LocalPoint localPoint = itemStack.getLocation();
+			final int tileKey = NMGroundItemIndex.packTile(
+				client.getBaseX() + localPoint.getSceneX(),
+				client.getBaseY() + localPoint.getSceneY(),
+				client.getPlane());
+			NMGroundItem groundItem = collectedGroundItems.get(tileKey, itemStack.getId());
 			if (groundItem != null)
 			{
 				groundItem.setLootType(lootType);
+				updateDespawnTicks(groundItem);
+				renderItemsDirty = true;
 
 				if (config.onlyShowLoot())
 				{
@@ -364,49 +814,91 @@ public class NMGroundItemsPlugin extends Plugin
 		}
 
 		// Since the loot can potentially be over multiple tiles, make sure to process lootbeams on all those tiles
-		items.stream()
-			.map(ItemStack::getLocation)
-			.map(l -> WorldPoint.fromLocal(client, l))
-			.distinct()
-			.forEach(this::handleLootbeam);
+		for (ItemStack itemStack : items)
+		{
+			dirtyLootbeamTiles.add(WorldPoint.fromLocal(client, itemStack.getLocation()));
+		}
 	}
 
-	private NMGroundItem buildGroundItem(final Tile tile, final TileItem item)
+	private NMGroundItem buildGroundItem(final Tile tile, final WorldPoint location, final TileItem item)
 	{
 		// Collect the data for the item
 		final int itemId = item.getId();
-		final ItemComposition itemComposition = itemManager.getItemComposition(itemId);
-		final int realItemId = itemComposition.getNote() != -1 ? itemComposition.getLinkedNoteId() : itemId;
-		final int alchPrice = itemComposition.getHaPrice();
-		final boolean dropped = tile.getWorldLocation().equals(client.getLocalPlayer().getWorldLocation()) && droppedItemQueue.remove(itemId);
+		itemTable.load(itemId);
+		final boolean dropped = location.equals(client.getLocalPlayer().getWorldLocation()) && droppedItemQueue.remove(itemId);
 		final boolean table = itemId == lastUsedItem && tile.getItemLayer().getHeight() > 0;
 
-		final NMGroundItem groundItem = NMGroundItem.builder()
-			.id(itemId)
-			.location(tile.getWorldLocation())
-			.itemId(realItemId)
-			.quantity(item.getQuantity())
-			.name(itemComposition.getName())
-			.haPrice(alchPrice)
-			.height(tile.getItemLayer().getHeight())
-			.tradeable(itemComposition.isTradeable())
-			.lootType(dropped ? NMLootType.DROPPED : (table ? NMLootType.TABLE : NMLootType.UNKNOWN))
-			.spawnTime(Instant.now())
-			.stackable(itemComposition.isStackable())
-			.build();
-
-		// Update item price in case it is coins
-		if (realItemId == COINS)
-		{
-			groundItem.setHaPrice(1);
-			groundItem.setGePrice(1);
+		final NMGroundItem groundItem = new NMGroundItem(itemId, itemTable, location, tile.getItemLayer().getHeight(),
+			item.getQuantity(), dropped ? NMLootType.DROPPED : (table ? NMLootType.TABLE : NMLootType.UNKNOWN),
+			client.getTickCount());
+
+		updateDespawnTicks(groundItem);
+
+		return groundItem;
+	}
+
+	private void updateDespawnTicks(NMGroundItem groundItem)
+	{
+		groundItem.setPublicTick(despawnPolicy.getPublicTick(groundItem.getSpawnTick()));
+		groundItem.setDespawnTick(despawnPolicy.getDespawnTick(groundItem.getLootType(), groundItem.getSpawnTick()));
+
+		// Items with an unknown despawn time are checked periodically instead
+		final int tick = client.getTickCount();
+		final int expiryTick = groundItem.getDespawnTick() != -1
+			? Math.max(groundItem.getDespawnTick(), tick) + DESPAWN_GRACE_TICKS
+			: tick + DESPAWN_RECHECK_TICKS;
+		despawnWheel.schedule(groundItem, expiryTick);
+	}
+
+	/**
+	 * Called by the despawn wheel once an item should have despawned. Items whose despawn event
+	 * was missed, or which are no longer in the loaded scene, are dropped along with their lootbeam.
+	 */
+	private void expireGroundItem(NMGroundItem groundItem)
+	{
+		final WorldPoint location = groundItem.getLocation();
+		if (collectedGroundItems.get(location, groundItem.getId()) != groundItem)
+		{
+			// Merged into an existing stack or already removed
+			return;
 		}
-		else
+
+		if (isOnGround(location, groundItem.getId()))
 		{
-			groundItem.setGePrice(itemManager.getItemPrice(realItemId));
+			despawnWheel.schedule(groundItem, client.getTickCount() + DESPAWN_RECHECK_TICKS);
+			return;
 		}
 
-		return groundItem;
+		collectedGroundItems.remove(location, groundItem.getId());
+		renderItemsDirty = true;
+		dirtyLootbeamTiles.add(location);
+	}
+
+	private boolean isOnGround(WorldPoint location, int itemId)
+	{
+		final int sceneX = location.getX() - client.getBaseX();
+		final int sceneY = location.getY() - client.getBaseY();
+		if (sceneX < 0 || sceneY < 0 || sceneX >= Constants.SCENE_SIZE || sceneY >= Constants.SCENE_SIZE)
+		{
+			return false;
+		}
+
+		final Tile tile = client.getScene().getTiles()[location.getPlane()][sceneX][sceneY];
+		final List<TileItem> tileItems = tile == null ? null : tile.getGroundItems();
+		if (tileItems == null)
+		{
+			return false;
+		}
+
+		for (TileItem tileItem : tileItems)
+		{
+			if (tileItem.getId() == itemId)
+			{
+				return true;
+			}
+		}
+
+		return false;
 	}
 
 	private void reset()
@@ -417,16 +909,92 @@ public class NMGroundItemsPlugin extends Plugin
 		// gets the highlighted items from the text box in the config
 		highlightedItemsList = Text.fromCSV(config.getHighlightItems());
 
-		highlightedItems = CacheBuilder.newBuilder()
-			.maximumSize(512L)
-			.expireAfterAccess(10, TimeUnit.MINUTES)
-			.build(new NMWildcardMatchLoader(highlightedItemsList));
+		// Compile both lists once so cache misses do not rescan every entry. The caches are keyed
+		// by name only, which is bounded by the number of distinct item names seen.
+		highlightedItemsLoader = new NMWildcardMatchLoader(new NMItemMatcher(highlightedItemsList));
+		highlightedItems = CacheBuilder.newBuilder().build(highlightedItemsLoader);
 
-		hiddenItems = CacheBuilder.newBuilder()
-			.maximumSize(512L)
-			.expireAfterAccess(10, TimeUnit.MINUTES)
-			.build(new NMWildcardMatchLoader(hiddenItemList));
+		hiddenItemsLoader = new NMWildcardMatchLoader(new NMItemMatcher(hiddenItemList));
+		hiddenItems = CacheBuilder.newBuilder().build(hiddenItemsLoader);
 
+		applyRuleChange(false);
+	}
+
+	/**
+	 * Applies an edit of one of the item lists. Only the entries which were added or removed can
+	 * change how a name resolves, so only the cached names and the items matching them are
+	 * invalidated and everything else keeps its classification.
+	 */
+	private void applyListChange(boolean hiddenList)
+	{
+		final List<String> previous = hiddenList ? hiddenItemList : highlightedItemsList;
+		final NMWildcardMatchLoader loader = hiddenList ? hiddenItemsLoader : highlightedItemsLoader;
+		final LoadingCache<String, List<NMItemThreshold>> cache = hiddenList ? hiddenItems : highlightedItems;
+		if (previous == null || cache == null)
+		{
+			return;
+		}
+
+		final List<String> current = Text.fromCSV(hiddenList ? config.getHiddenItems() : config.getHighlightItems());
+		if (hiddenList)
+		{
+			hiddenItemList = current;
+		}
+		else
+		{
+			highlightedItemsList = current;
+		}
+
+		// Entries with a changed quantity threshold count as removed and added
+		final Set<String> previousSet = new HashSet<>(previous);
+		final Set<String> currentSet = new HashSet<>(current);
+		final List<String> changed = new ArrayList<>();
+		previousSet.stream().filter(entry -> !currentSet.contains(entry)).forEach(changed::add);
+		currentSet.stream().filter(entry -> !previousSet.contains(entry)).forEach(changed::add);
+		if (changed.isEmpty())
+		{
+			return;
+		}
+
+		final NMItemMatcher matcher = new NMItemMatcher(current);
+		final NMItemMatcher changedMatcher = new NMItemMatcher(changed);
+
+		// Lookups happen on the client thread, so the matcher is swapped and the stale names
+		// dropped there, between two classifications
+		clientThread.invokeLater(() ->
+		{
+			loader.setMatcher(matcher);
+
+			final List<String> staleNames = new ArrayList<>();
+			for (String name : cache.asMap().keySet())
+			{
+				if (!changedMatcher.match(name).isEmpty())
+				{
+					staleNames.add(name);
+				}
+			}
+			cache.invalidateAll(staleNames);
+
+			for (NMGroundItem item : collectedGroundItems)
+			{
+				if (item.getName() != null && !changedMatcher.match(item.getName()).isEmpty())
+				{
+					item.setClassification(null);
+					dirtyLootbeamTiles.add(item.getLocation());
+					renderItemsDirty = true;
+				}
+			}
+		});
+	}
+
+	/**
+	 * Recompiles the rules after a change of the rules, the price tiers, the value settings or the
+	 * colors. The list caches are kept, so reclassifying the items never matches a name again.
+	 *
+	 * @param colorsOnly whether only colors changed, which never changes which tiles get a lootbeam
+	 */
+	private void applyRuleChange(boolean colorsOnly)
+	{
 		// Cache colors
 		ImmutableList.Builder<PriceHighlight> priceCheckBuilder = ImmutableList.builder();
 
@@ -451,67 +1019,51 @@ public class NMGroundItemsPlugin extends Plugin
 		}
 
 		priceChecks = priceCheckBuilder.build();
+		itemRules = compileRules();
+		classificationEpoch++;
+		configEpoch++;
 
-		clientThread.invokeLater(this::handleLootbeams);
+		if (colorsOnly)
+		{
+			clientThread.invokeLater(() -> dirtyLootbeamTiles.addAll(lootbeamCandidates.keySet()));
+		}
+		else
+		{
+			clientThread.invokeLater(this::handleLootbeams);
+		}
 	}
 
-	@Subscribe
-	public void onMenuEntryAdded(MenuEntryAdded event)
+	/**
+	 * Compiles the highlight rules followed by rules generated from the item lists, the price
+	 * tiers and the hide under value, which keeps the priorities the plugin always had.
+	 */
+	private NMItemRules compileRules()
 	{
-		MenuAction type = MenuAction.of(event.getType());
-		if (type == MenuAction.GROUND_ITEM_FIRST_OPTION || type == MenuAction.GROUND_ITEM_SECOND_OPTION ||
-			type == MenuAction.GROUND_ITEM_THIRD_OPTION || type == MenuAction.GROUND_ITEM_FOURTH_OPTION ||
-			type == MenuAction.GROUND_ITEM_FIFTH_OPTION || type == MenuAction.WIDGET_TARGET_ON_GROUND_ITEM)
-		{
-			final int itemId = event.getIdentifier();
-			final int sceneX = event.getActionParam0();
-			final int sceneY = event.getActionParam1();
+		final ToIntFunction<NMGroundItem> value = item -> getValueByMode(item.getGePrice(), item.getHaPrice());
+		final List<NMItemRules.Rule> explicitRules = new ArrayList<>(
+			new NMRuleParser(value).parse(config.highlightRules(), log::warn));
 
-			MenuEntry[] menuEntries = client.getMenuEntries();
-			MenuEntry lastEntry = menuEntries[menuEntries.length - 1];
+		final LoadingCache<String, List<NMItemThreshold>> highlighted = highlightedItems;
+		final LoadingCache<String, List<NMItemThreshold>> hidden = hiddenItems;
+		explicitRules.add(new NMItemRules.Rule(item -> isListed(highlighted, item.getName(), item.getQuantity()),
+			config.highlightedColor()));
+		explicitRules.add(new NMItemRules.Rule(item -> isListed(hidden, item.getName(), item.getQuantity()), null));
 
-			final WorldPoint worldPoint = WorldPoint.fromScene(client, sceneX, sceneY, client.getPlane());
-			NMGroundItem groundItem = collectedGroundItems.get(worldPoint, itemId);
-			int quantity = groundItem.getQuantity();
-
-			final int gePrice = groundItem.getGePrice();
-			final int haPrice = groundItem.getHaPrice();
-			final Color hidden = getHidden(new NMNamedQuantity(groundItem.getName(), quantity), gePrice, haPrice, groundItem.isTradeable());
-			final Color highlighted = getHighlighted(new NMNamedQuantity(groundItem.getName(), quantity), gePrice, haPrice);
-			final Color color = getItemColor(highlighted, hidden);
-			final boolean canBeRecolored = highlighted != null || (hidden != null && config.recolorMenuHiddenItems());
-
-			if ((config.itemHighlightMode() == NMItemHighlightMode.MENU || config.itemHighlightMode() == NMItemHighlightMode.BOTH) &&
-				(color != null && canBeRecolored && !color.equals(config.defaultColor())))
-			{
-				final NMMenuHighlightMode mode = config.menuHighlightMode();
-
-				if (mode == BOTH || mode == OPTION)
-				{
-					lastEntry.setOption(ColorUtil.prependColorTag(lastEntry.getOption(), color));
-				}
-
-				if (mode == BOTH || mode == NAME)
-				{
-					// <col=ff9040>Logs
-					// <col=00ff00>Telekinetic Grab</col><col=ffffff> -> <col=ff9040>Logs
-					String target = lastEntry.getTarget();
+		final List<NMItemRules.Rule> tierRules = new ArrayList<>(priceChecks.size());
+		for (PriceHighlight highlight : priceChecks)
+		{
+			final int price = highlight.getPrice();
+			tierRules.add(new NMItemRules.Rule(item -> value.applyAsInt(item) > price, highlight.getColor()));
+		}
 
-					int i = target.lastIndexOf('>');
-					lastEntry.setTarget(target.substring(0, i - 11) + ColorUtil.colorTag(color) + target.substring(i + 1));
-				}
-			}
+		final int hideUnderValue = config.getHideUnderValue();
+		final boolean dontHideUntradeables = config.dontHideUntradeables();
+		final Predicate<NMGroundItem> hideUnder = item ->
+			(item.getGePrice() > 0 || item.isTradeable() || !dontHideUntradeables)
+				&& item.getGePrice() < hideUnderValue
+				&& item.getHaPrice() < hideUnderValue;
 
-			if (config.showMenuItemQuantities() && groundItem.isStackable() && quantity > 1)
-			{
-				lastEntry.setTarget(lastEntry.getTarget() + " (" + quantity + ")");
-			}
-
-			if (hidden != null && highlighted == null && config.deprioritizeHiddenItems())
-			{
-				lastEntry.setDeprioritized(true);
-			}
-		}
+		return new NMItemRules(explicitRules, tierRules, hideUnder, config.hiddenColor(), config.defaultColor(), value);
 	}
 
 	void updateList(String item, boolean hiddenList)
@@ -535,62 +1087,61 @@ public class NMGroundItemsPlugin extends Plugin
 			items.add(item);
 		}
 
-		config.setHiddenItems(Text.toCSV(hiddenItemSet));
-		config.setHighlightedItem(Text.toCSV(highlightedItemSet));
-	}
-
-	Color getHighlighted(NMNamedQuantity item, int gePrice, int haPrice)
-	{
-		if (TRUE.equals(highlightedItems.getUnchecked(item)))
+		// Each write is applied on its own, so leave the list which did not change alone
+		if (!hiddenItemSet.equals(hiddenItemList))
 		{
-			return config.highlightedColor();
+			config.setHiddenItems(Text.toCSV(hiddenItemSet));
 		}
 
-		// Explicit hide takes priority over implicit highlight
-		if (TRUE.equals(hiddenItems.getUnchecked(item)))
+		if (!highlightedItemSet.equals(highlightedItemsList))
 		{
-			return null;
+			config.setHighlightedItem(Text.toCSV(highlightedItemSet));
 		}
+	}
 
-		final int price = getValueByMode(gePrice, haPrice);
-		for (PriceHighlight highlight : priceChecks)
+	/**
+	 * Returns the highlight state of the item, recomputing it only when the config epoch,
+	 * the item quantity or its price changed since it was last classified.
+	 */
+	NMItemClassification classify(NMGroundItem item)
+	{
+		final int epoch = classificationEpoch;
+		NMItemClassification classification = item.getClassification();
+		if (classification != null && !classification.isStale(epoch, item))
 		{
-			if (price > highlight.getPrice())
-			{
-				return highlight.getColor();
-			}
+			return classification;
 		}
 
-		return null;
-	}
-
-	Color getHidden(NMNamedQuantity item, int gePrice, int haPrice, boolean isTradeable)
-	{
-		final boolean isExplicitHidden = TRUE.equals(hiddenItems.getUnchecked(item));
-		final boolean isExplicitHighlight = TRUE.equals(highlightedItems.getUnchecked(item));
-		final boolean canBeHidden = gePrice > 0 || isTradeable || !config.dontHideUntradeables();
-		final boolean underGe = gePrice < config.getHideUnderValue();
-		final boolean underHa = haPrice < config.getHideUnderValue();
+		final NMItemRules rules = itemRules;
+		if (rules == null)
+		{
+			// The rules are compiled asynchronously on startup
+			return new NMItemClassification(epoch, item.getQuantity(), item.getGePrice(), item.getHaPrice(),
+				item.getLootType(), false, false, 0, null, null, config.defaultColor());
+		}
 
-		// Explicit highlight takes priority over implicit hide
-		return isExplicitHidden || (!isExplicitHighlight && canBeHidden && underGe && underHa)
-			? config.hiddenColor()
-			: null;
+		classification = rules.classify(item, epoch);
+		item.setClassification(classification);
+		return classification;
 	}
 
-	Color getItemColor(Color highlighted, Color hidden)
+	private static boolean isListed(LoadingCache<String, List<NMItemThreshold>> list, String name, int quantity)
 	{
-		if (highlighted != null)
+		// The lists are compiled asynchronously on startup
+		if (list == null || name == null)
 		{
-			return highlighted;
+			return false;
 		}
 
-		if (hidden != null)
+		for (NMItemThreshold threshold : list.getUnchecked(name))
 		{
-			return hidden;
+			if (threshold.quantityHolds(quantity))
+			{
+				return true;
+			}
 		}
 
-		return config.defaultColor();
+		return false;
 	}
 
 	@Subscribe
@@ -604,41 +1155,21 @@ public class NMGroundItemsPlugin extends Plugin
 
 	private void notifyHighlightedItem(NMGroundItem item)
 	{
+		final NMItemClassification classification = classify(item);
 		final boolean shouldNotifyHighlighted = config.notifyHighlightedDrops() &&
-			TRUE.equals(highlightedItems.getUnchecked(new NMNamedQuantity(item)));
+			classification.isHighlightListed();
 
 		final boolean shouldNotifyTier = config.notifyTier() != NMHighlightTier.OFF &&
-			getValueByMode(item.getGePrice(), item.getHaPrice()) > config.notifyTier().getValueFromTier(config) &&
-			FALSE.equals(hiddenItems.getUnchecked(new NMNamedQuantity(item)));
+			classification.getValue() > config.notifyTier().getValueFromTier(config) &&
+			!classification.isHiddenListed();
 
-		final String dropType;
-		if (shouldNotifyHighlighted)
-		{
-			dropType = "highlighted";
-		}
-		else if (shouldNotifyTier)
-		{
-			dropType = "valuable";
-		}
-		else
+		if (!shouldNotifyHighlighted && !shouldNotifyTier)
 		{
 			return;
 		}
 
-		final StringBuilder notificationStringBuilder = new StringBuilder()
-			.append("You received a ")
-			.append(dropType)
-			.append(" drop: ")
-			.append(item.getName());
-
-		if (item.getQuantity() > 1)
-		{
-			notificationStringBuilder.append(" (")
-				.append(QuantityFormatter.quantityToStackSize(item.getQuantity()))
-				.append(')');
-		}
-
-		notifier.notify(notificationStringBuilder.toString());
+		// Sent on the game tick, merged with the other drops of the tick
+		dropNotification.add(item.getName(), item.getQuantity(), classification.getValue(), shouldNotifyHighlighted);
 	}
 
 	private int getValueByMode(int gePrice, int haPrice)
@@ -678,13 +1209,12 @@ public class NMGroundItemsPlugin extends Plugin
 		 */
 		if (!(config.showLootbeamForHighlighted() || config.showLootbeamTier() != NMHighlightTier.OFF))
 		{
-			removeLootbeam(worldPoint);
+			lootbeamCandidates.remove(worldPoint);
 			return;
 		}
 
 		int price = -1;
-		Collection<NMGroundItem> groundItems = collectedGroundItems.row(worldPoint).values();
-		for (NMGroundItem groundItem : groundItems)
+		for (NMGroundItem groundItem = collectedGroundItems.getTile(worldPoint); groundItem != null; groundItem = groundItem.getNextOnTile())
 		{
 			if ((config.onlyShowLoot() && !groundItem.isMine()))
 			{
@@ -695,22 +1225,22 @@ public class NMGroundItemsPlugin extends Plugin
 			 * highlighted items have the highest priority so if an item is highlighted at this location
 			 * we can early return
 			 */
-			NMNamedQuantity item = new NMNamedQuantity(groundItem);
+			final NMItemClassification classification = classify(groundItem);
 			if (config.showLootbeamForHighlighted()
-				&& TRUE.equals(highlightedItems.getUnchecked(item)))
+				&& classification.isHighlightListed())
 			{
-				addLootbeam(worldPoint, config.highlightedColor());
+				lootbeamCandidates.put(worldPoint,
+					new LootbeamCandidate(worldPoint, classification.getHighlighted(), true, classification.getValue()));
 				return;
 			}
 
 			// Explicit hide takes priority over implicit highlight
-			if (TRUE.equals(hiddenItems.getUnchecked(item)))
+			if (classification.isHiddenListed())
 			{
 				continue;
 			}
 
-			int itemPrice = getValueByMode(groundItem.getGePrice(), groundItem.getHaPrice());
-			price = Math.max(itemPrice, price);
+			price = Math.max(classification.getValue(), price);
 		}
 
 		if (config.showLootbeamTier() != NMHighlightTier.OFF)
@@ -719,21 +1249,88 @@ public class NMGroundItemsPlugin extends Plugin
 			{
 				if (price > highlight.getPrice() && price > config.showLootbeamTier().getValueFromTier(config))
 				{
-					addLootbeam(worldPoint, highlight.color);
+					lootbeamCandidates.put(worldPoint, new LootbeamCandidate(worldPoint, highlight.color, false, price));
 					return;
 				}
 			}
 		}
 
-		removeLootbeam(worldPoint);
+		lootbeamCandidates.remove(worldPoint);
 	}
 
 	private void handleLootbeams()
 	{
-		for (WorldPoint worldPoint : collectedGroundItems.rowKeySet())
+		collectedGroundItems.forEachTile(groundItem -> dirtyLootbeamTiles.add(groundItem.getLocation()));
+	}
+
+	/**
+	 * Recomputes the lootbeam of every tile changed since the last client tick, so a tile receiving
+	 * many items in one tick is only evaluated once.
+	 */
+	private void handleDirtyLootbeams()
+	{
+		// Beam styles depend on the distance to the player when the light distance is set
+		final Player player = client.getLocalPlayer();
+		final WorldPoint playerLocation = player != null && config.lootbeamLightDistance() > 0 ? player.getWorldLocation() : null;
+		final boolean moved = !Objects.equals(playerLocation, lootbeamPlayerLocation);
+		if (dirtyLootbeamTiles.isEmpty() && !moved)
+		{
+			return;
+		}
+
+		for (WorldPoint worldPoint : dirtyLootbeamTiles)
 		{
 			handleLootbeam(worldPoint);
 		}
+
+		dirtyLootbeamTiles.clear();
+		lootbeamPlayerLocation = playerLocation;
+		assignLootbeams();
+	}
+
+	/**
+	 * Gives a lootbeam to the highest priority candidates within the configured budget and removes
+	 * the beams of tiles which no longer qualify or were pushed out of the budget.
+	 */
+	private void assignLootbeams()
+	{
+		final int maxLootbeams = config.maxLootbeams();
+		final Collection<LootbeamCandidate> assigned;
+		final Set<WorldPoint> assignedTiles;
+		if (maxLootbeams > 0 && lootbeamCandidates.size() > maxLootbeams)
+		{
+			assigned = LOOTBEAM_PRIORITY.greatestOf(lootbeamCandidates.values(), maxLootbeams);
+			assignedTiles = new HashSet<>();
+			for (LootbeamCandidate candidate : assigned)
+			{
+				assignedTiles.add(candidate.getLocation());
+			}
+		}
+		else
+		{
+			assigned = lootbeamCandidates.values();
+			assignedTiles = lootbeamCandidates.keySet();
+		}
+
+		for (Iterator<Map.Entry<WorldPoint, NMLootbeam>> it = lootbeams.entrySet().iterator(); it.hasNext(); )
+		{
+			final Map.Entry<WorldPoint, NMLootbeam> entry = it.next();
+			if (!assignedTiles.contains(entry.getKey()))
+			{
+				entry.getValue().remove();
+				it.remove();
+			}
+		}
+
+		final int lightDistance = config.lootbeamLightDistance();
+		for (LootbeamCandidate candidate : assigned)
+		{
+			final WorldPoint location = candidate.getLocation();
+			final NMLootbeam.Style style = lootbeamPlayerLocation != null && lootbeamPlayerLocation.distanceTo(location) > lightDistance
+				? NMLootbeam.Style.LIGHT
+				: config.lootbeamStyle();
+			addLootbeam(location, candidate.getColor(), style);
+		}
 	}
 
 	private void removeAllLootbeams()
@@ -746,27 +1343,18 @@ public class NMGroundItemsPlugin extends Plugin
 		lootbeams.clear();
 	}
 
-	private void addLootbeam(WorldPoint worldPoint, Color color)
+	private void addLootbeam(WorldPoint worldPoint, Color color, NMLootbeam.Style style)
 	{
 		NMLootbeam lootbeam = lootbeams.get(worldPoint);
 		if (lootbeam == null)
 		{
-			lootbeam = new NMLootbeam(client, clientThread, worldPoint, color, config.lootbeamStyle());
+			lootbeam = new NMLootbeam(client, clientThread, lootbeamCache, worldPoint, color, style);
 			lootbeams.put(worldPoint, lootbeam);
 		}
 		else
 		{
 			lootbeam.setColor(color);
-			lootbeam.setStyle(config.lootbeamStyle());
-		}
-	}
-
-	private void removeLootbeam(WorldPoint worldPoint)
-	{
-		NMLootbeam lootbeam = lootbeams.remove(worldPoint);
-		if (lootbeam != null)
-		{
-			lootbeam.remove();
+			lootbeam.setStyle(style);
 		}
 	}
 }
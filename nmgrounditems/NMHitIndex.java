@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2026, TomMartow <https://github.com/TomMartow>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.nmgrounditems;
+
+import java.awt.Rectangle;
+import java.util.Arrays;
+
+/**
+ * The label and box bounds drawn in one frame, bucketed in a uniform grid over the canvas so
+ * that the box under the mouse is found without scanning every item. It is rebuilt by the
+ * overlay every frame and read by the mouse adapter, so every access is
+ * synchronized; the overlay alternates between two instances to avoid waiting on readers.
+ */
+class NMHitIndex
+{
+	static final int TEXT = 0;
+	static final int HIDDEN = 1;
+	static final int HIGHLIGHT = 2;
+	// A pile summary, or a label of an expanded pile
+	static final int PILE = 3;
+
+	private static final int CELL_SHIFT = 5;
+
+	private NMRenderGrid grid;
+	private int columns;
+	private int rows;
+	private int[] cellHeads = new int[0];
+
+	private int[] left = new int[16];
+	private int[] top = new int[16];
+	private int[] right = new int[16];
+	private int[] bottom = new int[16];
+	private int[] kinds = new int[16];
+	private int[] gridIndexes = new int[16];
+	private NMRenderItem[] items = new NMRenderItem[16];
+	private int size;
+
+	// Cell chains, one entry per cell a box covers
+	private int[] entryBox = new int[64];
+	private int[] entryNext = new int[64];
+	private int entries;
+
+	synchronized void reset(NMRenderGrid grid, int width, int height)
+	{
+		this.grid = grid;
+		columns = Math.max(1, (width + (1 << CELL_SHIFT) - 1) >> CELL_SHIFT);
+		rows = Math.max(1, (height + (1 << CELL_SHIFT) - 1) >> CELL_SHIFT);
+		if (cellHeads.length < columns * rows)
+		{
+			cellHeads = new int[columns * rows];
+		}
+		Arrays.fill(cellHeads, 0, columns * rows, -1);
+
+		Arrays.fill(items, 0, size, null);
+		size = 0;
+		entries = 0;
+	}
+
+	synchronized void add(Rectangle bounds, int kind, int gridIndex, NMRenderItem item)
+	{
+		if (size == left.length)
+		{
+			final int capacity = size * 2;
+			left = Arrays.copyOf(left, capacity);
+			top = Arrays.copyOf(top, capacity);
+			right = Arrays.copyOf(right, capacity);
+			bottom = Arrays.copyOf(bottom, capacity);
+			kinds = Arrays.copyOf(kinds, capacity);
+			gridIndexes = Arrays.copyOf(gridIndexes, capacity);
+			items = Arrays.copyOf(items, capacity);
+		}
+
+		final int box = size++;
+		left[box] = bounds.x;
+		top[box] = bounds.y;
+		right[box] = bounds.x + bounds.width;
+		bottom[box] = bounds.y + bounds.height;
+		kinds[box] = kind;
+		gridIndexes[box] = gridIndex;
+		items[box] = item;
+
+		final int minColumn = clamp(left[box] >> CELL_SHIFT, columns);
+		final int maxColumn = clamp((right[box] - 1) >> CELL_SHIFT, columns);
+		final int minRow = clamp(top[box] >> CELL_SHIFT, rows);
+		final int maxRow = clamp((bottom[box] - 1) >> CELL_SHIFT, rows);
+		for (int column = minColumn; column <= maxColumn; column++)
+		{
+			for (int row = minRow; row <= maxRow; row++)
+			{
+				if (entries == entryBox.length)
+				{
+					entryBox = Arrays.copyOf(entryBox, entries * 2);
+					entryNext = Arrays.copyOf(entryNext, entries * 2);
+				}
+
+				final int cell = row * columns + column;
+				entryBox[entries] = box;
+				entryNext[entries] = cellHeads[cell];
+				cellHeads[cell] = entries++;
+			}
+		}
+	}
+
+	/**
+	 * Returns the box containing the point which was added last, and so drawn on top,
+	 * or -1 if there is none.
+	 */
+	synchronized int find(int x, int y)
+	{
+		if (size == 0 || x < 0 || y < 0 || (x >> CELL_SHIFT) >= columns || (y >> CELL_SHIFT) >= rows)
+		{
+			return -1;
+		}
+
+		// Boxes are pushed onto the chain, so the first match is the last one added
+		for (int e = cellHeads[(y >> CELL_SHIFT) * columns + (x >> CELL_SHIFT)]; e != -1; e = entryNext[e])
+		{
+			final int box = entryBox[e];
+			if (x >= left[box] && x < right[box] && y >= top[box] && y < bottom[box])
+			{
+				return box;
+			}
+		}
+
+		return -1;
+	}
+
+	synchronized NMRenderGrid getGrid()
+	{
+		return grid;
+	}
+
+	synchronized int getKind(int box)
+	{
+		return kinds[box];
+	}
+
+	synchronized int getGridIndex(int box)
+	{
+		return gridIndexes[box];
+	}
+
+	synchronized NMRenderItem getItem(int box)
+	{
+		return items[box];
+	}
+
+	private static int clamp(int value, int size)
+	{
+		return Math.max(0, Math.min(size - 1, value));
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2020, dekvall <https://github.com/dekvall>
+ * Copyright (c) 2026, TomMartow <https://github.com/TomMartow>
  * All rights reserved.
  *
  * Redistribution and use in source and binary forms, with or without
@@ -24,18 +24,39 @@
  */
 package net.runelite.client.plugins.nmgrounditems;
 
-import lombok.RequiredArgsConstructor;
 import lombok.Value;
 
+import javax.annotation.Nullable;
+import java.awt.*;
+
+/**
+ * Resolved highlight state of a ground item, stamped with the config epoch and the
+ * quantity, prices and loot type it was computed for.
+ */
 @Value
-@RequiredArgsConstructor
-class NMNamedQuantity
+class NMItemClassification
 {
-	private final String name;
+	private final int epoch;
 	private final int quantity;
+	private final int gePrice;
+	private final int haPrice;
+	// Rules may test whether the item is mine, which changes once the loot is received
+	private final NMLootType lootType;
+	private final boolean highlightListed;
+	private final boolean hiddenListed;
+	private final int value;
+	@Nullable
+	private final Color highlighted;
+	@Nullable
+	private final Color hidden;
+	private final Color color;
 
-	NMNamedQuantity(NMGroundItem NMGroundItem)
+	boolean isStale(int epoch, NMGroundItem item)
 	{
-		this(NMGroundItem.getName(), NMGroundItem.getQuantity());
+		return this.epoch != epoch
+			|| quantity != item.getQuantity()
+			|| gePrice != item.getGePrice()
+			|| haPrice != item.getHaPrice()
+			|| lootType != item.getLootType();
 	}
 }
@@ -0,0 +1,329 @@
+/*
+ * Copyright (c) 2026, TomMartow <https://github.com/TomMartow>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.nmgrounditems;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A highlighted or hidden item list compiled into a single matcher. Plain names are
+ * looked up in a hash map, names ending in a single '*' walk a prefix trie and every
+ * other wildcard pattern is matched by one lazily built automaton, so the cost of a
+ * lookup depends on the length of the item name rather than the length of the list.
+ * Matching is case insensitive, like {@link net.runelite.client.util.WildcardMatcher}.
+ */
+class NMItemMatcher
+{
+	private final Map<String, List<NMItemThreshold>> exact = new HashMap<>();
+	private final TrieNode prefixes = new TrieNode();
+	private final WildcardAutomaton automaton;
+
+	NMItemMatcher(List<String> configEntries)
+	{
+		final Map<String, List<NMItemThreshold>> wildcards = new LinkedHashMap<>();
+
+		for (String configEntry : configEntries)
+		{
+			final NMItemThreshold threshold = NMItemThreshold.fromConfigEntry(configEntry);
+			if (threshold == null)
+			{
+				continue;
+			}
+
+			final String pattern = lowerCase(threshold.getItemName());
+			final int star = pattern.indexOf('*');
+
+			if (star == -1)
+			{
+				exact.computeIfAbsent(pattern, k -> new ArrayList<>()).add(threshold);
+			}
+			else if (star == pattern.length() - 1)
+			{
+				prefixes.insert(pattern, star).add(threshold);
+			}
+			else
+			{
+				wildcards.computeIfAbsent(pattern, k -> new ArrayList<>()).add(threshold);
+			}
+		}
+
+		automaton = new WildcardAutomaton(wildcards);
+	}
+
+	/**
+	 * Returns every threshold whose pattern matches the given item name.
+	 */
+	List<NMItemThreshold> match(String name)
+	{
+		final String key = lowerCase(name);
+		final List<NMItemThreshold> exactMatches = exact.getOrDefault(key, Collections.emptyList());
+		final List<NMItemThreshold> prefixMatches = prefixes.match(key);
+		final List<NMItemThreshold> wildcardMatches = automaton.match(key);
+
+		if (prefixMatches.isEmpty() && wildcardMatches.isEmpty())
+		{
+			return exactMatches;
+		}
+
+		final List<NMItemThreshold> matches = new ArrayList<>(exactMatches.size() + prefixMatches.size() + wildcardMatches.size());
+		matches.addAll(exactMatches);
+		matches.addAll(prefixMatches);
+		matches.addAll(wildcardMatches);
+		return matches;
+	}
+
+	boolean matches(String name, int quantity)
+	{
+		for (NMItemThreshold threshold : match(name))
+		{
+			if (threshold.quantityHolds(quantity))
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static String lowerCase(String s)
+	{
+		final char[] chars = s.toCharArray();
+		for (int i = 0; i < chars.length; i++)
+		{
+			chars[i] = Character.toLowerCase(chars[i]);
+		}
+		return new String(chars);
+	}
+
+	private static class TrieNode
+	{
+		private final Map<Character, TrieNode> children = new HashMap<>();
+		private List<NMItemThreshold> thresholds = Collections.emptyList();
+
+		List<NMItemThreshold> insert(String pattern, int length)
+		{
+			TrieNode node = this;
+			for (int i = 0; i < length; i++)
+			{
+				node = node.children.computeIfAbsent(pattern.charAt(i), k -> new TrieNode());
+			}
+
+			if (node.thresholds.isEmpty())
+			{
+				node.thresholds = new ArrayList<>();
+			}
+			return node.thresholds;
+		}
+
+		List<NMItemThreshold> match(String name)
+		{
+			// Every prefix pattern along the path matches, since the trailing '*' may be empty
+			List<NMItemThreshold> matches = thresholds;
+			TrieNode node = this;
+			for (int i = 0; i < name.length(); i++)
+			{
+				node = node.children.get(name.charAt(i));
+				if (node == null)
+				{
+					break;
+				}
+
+				if (!node.thresholds.isEmpty())
+				{
+					if (matches.isEmpty())
+					{
+						matches = node.thresholds;
+					}
+					else
+					{
+						final List<NMItemThreshold> merged = new ArrayList<>(matches);
+						merged.addAll(node.thresholds);
+						matches = merged;
+					}
+				}
+			}
+			return matches;
+		}
+	}
+
+	/**
+	 * All remaining wildcard patterns share one nondeterministic automaton, which is turned
+	 * into a deterministic one lazily as names are looked up.
+	 */
+	private static class WildcardAutomaton
+	{
+		// Bound on cached deterministic states before the cache is dropped and rebuilt
+		private static final int MAX_STATES = 4096;
+		private static final char ACCEPT = '\0';
+		private static final char ANY = '*';
+
+		// One nondeterministic state per pattern position, plus an accepting state per pattern
+		private final char[] symbols;
+		private final List<List<NMItemThreshold>> acceptThresholds = new ArrayList<>();
+		private final int[] acceptIndex;
+		private final BitSet starts = new BitSet();
+
+		private final Map<BitSet, State> states = new HashMap<>();
+		private State initial;
+
+		private static class State
+		{
+			private final BitSet positions;
+			private final List<NMItemThreshold> accepted;
+			private final Map<Character, State> transitions = new HashMap<>();
+
+			State(BitSet positions, List<NMItemThreshold> accepted)
+			{
+				this.positions = positions;
+				this.accepted = accepted;
+			}
+		}
+
+		WildcardAutomaton(Map<String, List<NMItemThreshold>> patterns)
+		{
+			int total = 0;
+			for (String pattern : patterns.keySet())
+			{
+				total += pattern.length() + 1;
+			}
+
+			symbols = new char[total];
+			acceptIndex = new int[total];
+
+			int position = 0;
+			for (Map.Entry<String, List<NMItemThreshold>> entry : patterns.entrySet())
+			{
+				final String pattern = entry.getKey();
+				starts.set(position);
+				for (int i = 0; i < pattern.length(); i++)
+				{
+					symbols[position] = pattern.charAt(i);
+					acceptIndex[position++] = -1;
+				}
+
+				symbols[position] = ACCEPT;
+				acceptIndex[position++] = acceptThresholds.size();
+				acceptThresholds.add(ImmutableList.copyOf(entry.getValue()));
+			}
+		}
+
+		synchronized List<NMItemThreshold> match(String name)
+		{
+			if (symbols.length == 0)
+			{
+				return Collections.emptyList();
+			}
+
+			if (initial == null || states.size() > MAX_STATES)
+			{
+				states.clear();
+				initial = state(closure(starts));
+			}
+
+			State state = initial;
+			for (int i = 0; i < name.length() && !state.positions.isEmpty(); i++)
+			{
+				final char c = name.charAt(i);
+				State next = state.transitions.get(c);
+				if (next == null)
+				{
+					next = state(step(state.positions, c));
+					state.transitions.put(c, next);
+				}
+				state = next;
+			}
+
+			return state.accepted;
+		}
+
+		private State state(BitSet positions)
+		{
+			State state = states.get(positions);
+			if (state == null)
+			{
+				List<NMItemThreshold> accepted = Collections.emptyList();
+				for (int p = positions.nextSetBit(0); p >= 0; p = positions.nextSetBit(p + 1))
+				{
+					if (acceptIndex[p] >= 0)
+					{
+						if (accepted.isEmpty())
+						{
+							accepted = acceptThresholds.get(acceptIndex[p]);
+						}
+						else
+						{
+							final List<NMItemThreshold> merged = new ArrayList<>(accepted);
+							merged.addAll(acceptThresholds.get(acceptIndex[p]));
+							accepted = merged;
+						}
+					}
+				}
+
+				state = new State(positions, accepted);
+				states.put(positions, state);
+			}
+			return state;
+		}
+
+		private BitSet step(BitSet positions, char c)
+		{
+			final BitSet next = new BitSet(symbols.length);
+			for (int p = positions.nextSetBit(0); p >= 0; p = positions.nextSetBit(p + 1))
+			{
+				final char symbol = symbols[p];
+				if (symbol == ANY)
+				{
+					next.set(p);
+				}
+				else if (symbol == c)
+				{
+					next.set(p + 1);
+				}
+			}
+			return closure(next);
+		}
+
+		// A '*' may match nothing, so any position sitting on one also reaches the next position
+		private BitSet closure(BitSet positions)
+		{
+			final BitSet closed = (BitSet) positions.clone();
+			for (int p = closed.nextSetBit(0); p >= 0; p = closed.nextSetBit(p + 1))
+			{
+				if (symbols[p] == ANY)
+				{
+					closed.set(p + 1);
+				}
+			}
+			return closed;
+		}
+	}
+}
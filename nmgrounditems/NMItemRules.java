@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2026, TomMartow <https://github.com/TomMartow>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.nmgrounditems;
+
+import lombok.Value;
+
+import javax.annotation.Nullable;
+import java.awt.*;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Every highlight and hide rule compiled into chains of predicates, so that an item is
+ * classified by a single evaluation. Explicit rules, which are the user's rules followed by the
+ * rules for the item lists, take priority over the implicit price tier and hide under rules.
+ */
+class NMItemRules
+{
+	@Value
+	static class Rule
+	{
+		private final Predicate<NMGroundItem> condition;
+		// Highlight color, or null if the rule hides the item
+		@Nullable
+		private final Color color;
+
+		boolean isHide()
+		{
+			return color == null;
+		}
+	}
+
+	private final Rule[] highlightRules;
+	private final Rule[] hideRules;
+	private final Rule[] tierRules;
+	private final Predicate<NMGroundItem> hideUnder;
+	private final Color hiddenColor;
+	private final Color defaultColor;
+	private final ToIntFunction<NMGroundItem> value;
+
+	/**
+	 * @param explicitRules highlight and hide rules, in priority order
+	 * @param tierRules implicit highlight rules, in priority order
+	 * @param hideUnder implicit hide rule
+	 */
+	NMItemRules(List<Rule> explicitRules, List<Rule> tierRules, Predicate<NMGroundItem> hideUnder,
+		Color hiddenColor, Color defaultColor, ToIntFunction<NMGroundItem> value)
+	{
+		this.highlightRules = explicitRules.stream().filter(r -> !r.isHide()).toArray(Rule[]::new);
+		this.hideRules = explicitRules.stream().filter(Rule::isHide).toArray(Rule[]::new);
+		this.tierRules = tierRules.toArray(new Rule[0]);
+		this.hideUnder = hideUnder;
+		this.hiddenColor = hiddenColor;
+		this.defaultColor = defaultColor;
+		this.value = value;
+	}
+
+	NMItemClassification classify(NMGroundItem item, int epoch)
+	{
+		final Color explicitHighlight = firstMatch(highlightRules, item);
+		final boolean highlightListed = explicitHighlight != null;
+		final boolean hiddenListed = firstMatch(hideRules, item) != null;
+		final int itemValue = value.applyAsInt(item);
+
+		// Explicit hide takes priority over implicit highlight
+		final Color highlighted = highlightListed
+			? explicitHighlight
+			: (hiddenListed ? null : firstMatch(tierRules, item));
+
+		// Explicit highlight takes priority over implicit hide
+		final Color hidden = hiddenListed || (!highlightListed && hideUnder.test(item))
+			? hiddenColor
+			: null;
+
+		final Color color = highlighted != null ? highlighted : (hidden != null ? hidden : defaultColor);
+		return new NMItemClassification(epoch, item.getQuantity(), item.getGePrice(), item.getHaPrice(), item.getLootType(),
+			highlightListed, hiddenListed, itemValue, highlighted, hidden, color);
+	}
+
+	/**
+	 * Returns the color of the first matching rule, or null if none match. Hide rules match
+	 * with the hidden color.
+	 */
+	@Nullable
+	private Color firstMatch(Rule[] rules, NMGroundItem item)
+	{
+		for (Rule rule : rules)
+		{
+			if (rule.getCondition().test(item))
+			{
+				return rule.isHide() ? hiddenColor : rule.getColor();
+			}
+		}
+		return null;
+	}
+}
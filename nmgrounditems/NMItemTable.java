@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2026, TomMartow <https://github.com/TomMartow>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.nmgrounditems;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import net.runelite.api.ItemComposition;
+import net.runelite.api.ItemID;
+import net.runelite.client.game.ItemManager;
+
+import javax.inject.Inject;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Item definitions needed by ground items, stored in arrays indexed by item id. A row is filled
+ * from the item composition the first time the item is seen, so spawns after that are plain
+ * array reads. Ground items keep a reference to the table instead of their own copy of the data.
+ * Must only be used from the client thread.
+ */
+class NMItemTable
+{
+	private static final int INITIAL_CAPACITY = 1 << 15;
+
+	private static final byte LOADED = 1;
+	private static final byte TRADEABLE = 1 << 1;
+	private static final byte STACKABLE = 1 << 2;
+
+	private final ItemManager itemManager;
+	// Noted and unnoted items share their name
+	private final Interner<String> nameInterner = Interners.newStrongInterner();
+
+	private int[] linkedIds = new int[INITIAL_CAPACITY];
+	private int[] haPrices = new int[INITIAL_CAPACITY];
+	private int[] gePrices = new int[INITIAL_CAPACITY];
+	private byte[] flags = new byte[INITIAL_CAPACITY];
+	private String[] names = new String[INITIAL_CAPACITY];
+	// Ids of the loaded rows, so price refreshes do not scan the whole table
+	private int[] loadedIds = new int[256];
+	private int loadedCount;
+
+	@Inject
+	private NMItemTable(ItemManager itemManager)
+	{
+		this.itemManager = itemManager;
+	}
+
+	/**
+	 * Fills the row of the item if it has not been loaded yet.
+	 */
+	void load(int id)
+	{
+		if (id < flags.length && (flags[id] & LOADED) != 0)
+		{
+			return;
+		}
+
+		if (id >= flags.length)
+		{
+			grow(id + 1);
+		}
+
+		final ItemComposition itemComposition = itemManager.getItemComposition(id);
+		final int linkedId = itemComposition.getNote() != -1 ? itemComposition.getLinkedNoteId() : id;
+
+		linkedIds[id] = linkedId;
+		names[id] = nameInterner.intern(itemComposition.getName());
+
+		// Coins are worth exactly their quantity
+		if (linkedId == ItemID.COINS_995)
+		{
+			haPrices[id] = 1;
+			gePrices[id] = 1;
+		}
+		else
+		{
+			haPrices[id] = itemComposition.getHaPrice();
+			gePrices[id] = itemManager.getItemPrice(linkedId);
+		}
+
+		byte itemFlags = LOADED;
+		if (itemComposition.isTradeable())
+		{
+			itemFlags |= TRADEABLE;
+		}
+		if (itemComposition.isStackable())
+		{
+			itemFlags |= STACKABLE;
+		}
+		flags[id] = itemFlags;
+
+		if (loadedCount == loadedIds.length)
+		{
+			loadedIds = Arrays.copyOf(loadedIds, loadedCount * 2);
+		}
+		loadedIds[loadedCount++] = id;
+	}
+
+	/**
+	 * Re-reads the GE price of every loaded item, calling the consumer with the id of each item
+	 * whose price changed.
+	 */
+	void refreshPrices(IntConsumer changed)
+	{
+		for (int i = 0; i < loadedCount; i++)
+		{
+			final int id = loadedIds[i];
+			final int linkedId = linkedIds[id];
+			if (linkedId == ItemID.COINS_995)
+			{
+				continue;
+			}
+
+			final int price = itemManager.getItemPrice(linkedId);
+			if (price != gePrices[id])
+			{
+				gePrices[id] = price;
+				changed.accept(id);
+			}
+		}
+	}
+
+	/**
+	 * Returns the id of the unnoted item, or the id itself if the item is not a note.
+	 */
+	int getLinkedId(int id)
+	{
+		return linkedIds[id];
+	}
+
+	String getName(int id)
+	{
+		return names[id];
+	}
+
+	int getHaPrice(int id)
+	{
+		return haPrices[id];
+	}
+
+	int getGePrice(int id)
+	{
+		return gePrices[id];
+	}
+
+	boolean isTradeable(int id)
+	{
+		return (flags[id] & TRADEABLE) != 0;
+	}
+
+	boolean isStackable(int id)
+	{
+		return (flags[id] & STACKABLE) != 0;
+	}
+
+	void clear()
+	{
+		Arrays.fill(flags, (byte) 0);
+		Arrays.fill(names, null);
+		loadedCount = 0;
+	}
+
+	private void grow(int minCapacity)
+	{
+		final int capacity = Integer.highestOneBit(minCapacity - 1) << 1;
+		linkedIds = Arrays.copyOf(linkedIds, capacity);
+		haPrices = Arrays.copyOf(haPrices, capacity);
+		gePrices = Arrays.copyOf(gePrices, capacity);
+		flags = Arrays.copyOf(flags, capacity);
+		names = Arrays.copyOf(names, capacity);
+	}
+}
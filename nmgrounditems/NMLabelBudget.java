@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2026, TomMartow <https://github.com/TomMartow>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.nmgrounditems;
+
+import java.util.BitSet;
+import java.util.function.Predicate;
+
+/**
+ * Picks which items get a full label when there are more items than the label budget.
+ * Highlighted items come first, then items which are not hidden, each ordered by value.
+ */
+final class NMLabelBudget
+{
+	private NMLabelBudget()
+	{
+	}
+
+	/**
+	 * Returns the indexes of the highest priority shown items among the first count candidate
+	 * indexes, at most budget of them. A min-heap bounded to the budget keeps the best items seen
+	 * so far, so the items are never sorted.
+	 */
+	static BitSet select(NMRenderItem[] items, int[] candidates, int count, int budget, Predicate<NMRenderItem> shown)
+	{
+		final int[] heap = new int[budget];
+		final long[] priorities = new long[budget];
+		int size = 0;
+
+		for (int c = 0; c < count; c++)
+		{
+			// Items which are never drawn must not take up a label
+			final int i = candidates[c];
+			if (!shown.test(items[i]))
+			{
+				continue;
+			}
+
+			final long priority = priority(items[i]);
+			if (size < budget)
+			{
+				// Sift up
+				int slot = size++;
+				while (slot > 0)
+				{
+					final int parent = (slot - 1) >>> 1;
+					if (priorities[parent] <= priority)
+					{
+						break;
+					}
+					heap[slot] = heap[parent];
+					priorities[slot] = priorities[parent];
+					slot = parent;
+				}
+				heap[slot] = i;
+				priorities[slot] = priority;
+			}
+			else if (priority > priorities[0])
+			{
+				// Replace the lowest priority item and sift down
+				int slot = 0;
+				while (true)
+				{
+					int child = 2 * slot + 1;
+					if (child >= size)
+					{
+						break;
+					}
+					if (child + 1 < size && priorities[child + 1] < priorities[child])
+					{
+						child++;
+					}
+					if (priorities[child] >= priority)
+					{
+						break;
+					}
+					heap[slot] = heap[child];
+					priorities[slot] = priorities[child];
+					slot = child;
+				}
+				heap[slot] = i;
+				priorities[slot] = priority;
+			}
+		}
+
+		final BitSet selected = new BitSet(items.length);
+		for (int i = 0; i < size; i++)
+		{
+			selected.set(heap[i]);
+		}
+		return selected;
+	}
+
+	private static long priority(NMRenderItem item)
+	{
+		final NMItemClassification classification = item.getClassification();
+		final int rank = classification.getHighlighted() != null ? 2 : (classification.getHidden() == null ? 1 : 0);
+		return (long) rank << 32 | Math.max(classification.getValue(), 0);
+	}
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2026, TomMartow <https://github.com/TomMartow>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.nmgrounditems;
+
+import lombok.Value;
+import net.runelite.client.plugins.nmgrounditems.config.NMPriceDisplayMode;
+import net.runelite.client.util.QuantityFormatter;
+
+import java.awt.*;
+import java.util.Arrays;
+
+/**
+ * Caches the overlay label of a ground item and its width in pixels, keyed by item id and
+ * quantity. A label is rebuilt when the prices of its stack changed, and the cache is dropped
+ * whenever the config epoch, the price display mode or the font changes, or when it grows past
+ * {@link #MAX_SIZE}.
+ */
+class NMLabelCache
+{
+	private static final int MAX_SIZE = 4096;
+
+	@Value
+	static class Label
+	{
+		private final String text;
+		private final int width;
+	}
+
+	private final StringBuilder builder = new StringBuilder();
+	private final long[] keys = new long[MAX_SIZE * 2];
+	private final Label[] labels = new Label[MAX_SIZE * 2];
+	// Prices each label was built with, which change when the item prices are refreshed
+	private final int[] gePrices = new int[MAX_SIZE * 2];
+	private final int[] haPrices = new int[MAX_SIZE * 2];
+	private int size;
+
+	private int epoch;
+	private NMPriceDisplayMode priceDisplayMode;
+	private Font font;
+
+	Label get(NMRenderItem item, NMPriceDisplayMode priceDisplayMode, FontMetrics fontMetrics, int epoch)
+	{
+		if (this.epoch != epoch || this.priceDisplayMode != priceDisplayMode || !fontMetrics.getFont().equals(font))
+		{
+			clear();
+			this.epoch = epoch;
+			this.priceDisplayMode = priceDisplayMode;
+			this.font = fontMetrics.getFont();
+		}
+
+		final long key = (long) item.getId() << 32 | (item.getQuantity() & 0xFFFFFFFFL);
+		final int mask = keys.length - 1;
+		int slot = mix(key) & mask;
+		while (labels[slot] != null)
+		{
+			if (keys[slot] == key)
+			{
+				if (gePrices[slot] == item.getGePrice() && haPrices[slot] == item.getHaPrice())
+				{
+					return labels[slot];
+				}
+
+				// Same stack with refreshed prices, replace the label in place
+				return put(slot, item, priceDisplayMode, fontMetrics);
+			}
+			slot = (slot + 1) & mask;
+		}
+
+		if (size >= MAX_SIZE)
+		{
+			clear();
+			slot = mix(key) & mask;
+		}
+
+		keys[slot] = key;
+		size++;
+		return put(slot, item, priceDisplayMode, fontMetrics);
+	}
+
+	private Label put(int slot, NMRenderItem item, NMPriceDisplayMode priceDisplayMode, FontMetrics fontMetrics)
+	{
+		final String text = buildLabel(item, priceDisplayMode);
+		final Label label = new Label(text, fontMetrics.stringWidth(text));
+		labels[slot] = label;
+		gePrices[slot] = item.getGePrice();
+		haPrices[slot] = item.getHaPrice();
+		return label;
+	}
+
+	void clear()
+	{
+		if (size > 0)
+		{
+			Arrays.fill(labels, null);
+			size = 0;
+		}
+	}
+
+	private String buildLabel(NMRenderItem item, NMPriceDisplayMode priceDisplayMode)
+	{
+		builder.append(item.getName());
+
+		if (item.getQuantity() > 1)
+		{
+			builder.append(" (")
+				.append(QuantityFormatter.quantityToStackSize(item.getQuantity()))
+				.append(')');
+		}
+
+		if (priceDisplayMode == NMPriceDisplayMode.BOTH)
+		{
+			if (item.getGePrice() > 0)
+			{
+				builder.append(" (GE: ")
+					.append(QuantityFormatter.quantityToStackSize(item.getGePrice()))
+					.append(" gp)");
+			}
+
+			if (item.getHaPrice() > 0)
+			{
+				builder.append(" (HA: ")
+					.append(QuantityFormatter.quantityToStackSize(item.getHaPrice()))
+					.append(" gp)");
+			}
+		}
+		else if (priceDisplayMode != NMPriceDisplayMode.OFF)
+		{
+			final int price = priceDisplayMode == NMPriceDisplayMode.GE
+				? item.getGePrice()
+				: item.getHaPrice();
+
+			if (price > 0)
+			{
+				builder
+					.append(" (")
+					.append(QuantityFormatter.quantityToStackSize(price))
+					.append(" gp)");
+			}
+		}
+
+		final String label = builder.toString();
+		builder.setLength(0);
+		return label;
+	}
+
+	private static int mix(long key)
+	{
+		key ^= key >>> 33;
+		key *= 0xFF51AFD7ED558CCDL;
+		key ^= key >>> 33;
+		return (int) key;
+	}
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2026, TomMartow <https://github.com/TomMartow>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.nmgrounditems;
+
+import net.runelite.api.Client;
+import net.runelite.api.coords.WorldPoint;
+
+import java.awt.Font;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Screen positions of the item labels, laid out so that no two labels overlap. Each label is
+ * placed at its tile and moved up until it is clear of the labels placed before it, found
+ * through a uniform grid over the viewport. The layout only depends on the items, the camera and
+ * the player's tile, so it is kept until one of those changes.
+ */
+class NMLabelLayout
+{
+	static final int NONE = Integer.MIN_VALUE;
+
+	private static final int CELL_SHIFT = 6;
+	// Bound on how far a label is pushed up in a very dense pile
+	private static final int MAX_STEPS = 64;
+
+	// Positions by index into the render grid items, NONE if the item has no label
+	private int[] textX = new int[0];
+	private int[] textY = new int[0];
+	// Number of items counted by the label, 0 for the label of the item itself
+	private int[] counts = new int[0];
+	// Pile summary drawn by the label in place of the label of the item
+	private NMPileSummary[] piles = new NMPileSummary[0];
+
+	// Bounds of the placed labels
+	private int[] left = new int[16];
+	private int[] top = new int[16];
+	private int[] right = new int[16];
+	private int[] bottom = new int[16];
+	private int placed;
+
+	// Grid over the viewport, each cell heads a chain of placed labels. Labels outside the
+	// viewport fall into the border cells, which only makes those chains longer.
+	private int[] cellHeads = new int[0];
+	private int columns;
+	private int rows;
+	private int[] entryLabel = new int[64];
+	private int[] entryNext = new int[64];
+	private int entries;
+
+	// What the layout was computed for
+	private NMRenderGrid grid;
+	private WorldPoint expandedPile;
+	private int epoch;
+	private boolean hotkey;
+	private WorldPoint playerLocation;
+	private Font font;
+	private int cameraX;
+	private int cameraY;
+	private int cameraZ;
+	private int cameraPitch;
+	private int cameraYaw;
+	private int scale;
+	private int viewportWidth;
+	private int viewportHeight;
+
+	boolean isValid(NMRenderGrid grid, WorldPoint expandedPile, int epoch, boolean hotkey, WorldPoint playerLocation, Font font, Client client)
+	{
+		return this.grid == grid
+			&& Objects.equals(this.expandedPile, expandedPile)
+			&& this.epoch == epoch
+			&& this.hotkey == hotkey
+			&& Objects.equals(this.playerLocation, playerLocation)
+			&& Objects.equals(this.font, font)
+			&& cameraX == client.getCameraX()
+			&& cameraY == client.getCameraY()
+			&& cameraZ == client.getCameraZ()
+			&& cameraPitch == client.getCameraPitch()
+			&& cameraYaw == client.getCameraYaw()
+			&& scale == client.getScale()
+			&& viewportWidth == client.getViewportWidth()
+			&& viewportHeight == client.getViewportHeight();
+	}
+
+	/**
+	 * Discards the current layout and starts a new one for the given inputs.
+	 */
+	void reset(NMRenderGrid grid, WorldPoint expandedPile, int epoch, boolean hotkey, WorldPoint playerLocation, Font font, Client client)
+	{
+		this.grid = grid;
+		this.expandedPile = expandedPile;
+		this.epoch = epoch;
+		this.hotkey = hotkey;
+		this.playerLocation = playerLocation;
+		this.font = font;
+		cameraX = client.getCameraX();
+		cameraY = client.getCameraY();
+		cameraZ = client.getCameraZ();
+		cameraPitch = client.getCameraPitch();
+		cameraYaw = client.getCameraYaw();
+		scale = client.getScale();
+		viewportWidth = client.getViewportWidth();
+		viewportHeight = client.getViewportHeight();
+
+		final int size = grid.getItems().length;
+		if (textX.length < size)
+		{
+			textX = new int[size];
+			textY = new int[size];
+			counts = new int[size];
+			piles = new NMPileSummary[size];
+		}
+		Arrays.fill(textX, NONE);
+		Arrays.fill(piles, null);
+
+		columns = ((client.getViewportXOffset() + viewportWidth) >> CELL_SHIFT) + 1;
+		rows = ((client.getViewportYOffset() + viewportHeight) >> CELL_SHIFT) + 1;
+		if (cellHeads.length < columns * rows)
+		{
+			cellHeads = new int[columns * rows];
+		}
+		Arrays.fill(cellHeads, 0, columns * rows, -1);
+
+		placed = 0;
+		entries = 0;
+	}
+
+	/**
+	 * Places the label of the item with its baseline at the given position, moving it up by
+	 * the given step until it no longer overlaps any label placed before it.
+	 */
+	void place(int index, int x, int baselineY, int width, int height, int step)
+	{
+		int y = baselineY;
+		for (int steps = 0; steps < MAX_STEPS && collides(x, y - height, x + width, y); steps++)
+		{
+			y -= step;
+		}
+
+		textX[index] = x;
+		textY[index] = y;
+		counts[index] = 0;
+		insert(x, y - height, x + width, y);
+	}
+
+	/**
+	 * Places a label counting the given number of items in place of the label of the item.
+	 */
+	void placeCount(int index, int count, int x, int baselineY, int width, int height, int step)
+	{
+		place(index, x, baselineY, width, height, step);
+		counts[index] = count;
+	}
+
+	int getCount(int index)
+	{
+		return counts[index];
+	}
+
+	/**
+	 * Places the summary of a pile in place of the label of the item.
+	 */
+	void placePile(int index, NMPileSummary pile, int x, int baselineY, int width, int height, int step)
+	{
+		place(index, x, baselineY, width, height, step);
+		piles[index] = pile;
+	}
+
+	NMPileSummary getPile(int index)
+	{
+		return piles[index];
+	}
+
+	int getTextX(int index)
+	{
+		return textX[index];
+	}
+
+	int getTextY(int index)
+	{
+		return textY[index];
+	}
+
+	private boolean collides(int x0, int y0, int x1, int y1)
+	{
+		final int cx1 = column(x1 - 1);
+		final int cy1 = row(y1 - 1);
+		for (int cx = column(x0); cx <= cx1; cx++)
+		{
+			for (int cy = row(y0); cy <= cy1; cy++)
+			{
+				for (int e = cellHeads[cy * columns + cx]; e != -1; e = entryNext[e])
+				{
+					final int l = entryLabel[e];
+					if (x0 < right[l] && left[l] < x1 && y0 < bottom[l] && top[l] < y1)
+					{
+						return true;
+					}
+				}
+			}
+		}
+
+		return false;
+	}
+
+	private void insert(int x0, int y0, int x1, int y1)
+	{
+		if (placed == left.length)
+		{
+			left = Arrays.copyOf(left, placed * 2);
+			top = Arrays.copyOf(top, placed * 2);
+			right = Arrays.copyOf(right, placed * 2);
+			bottom = Arrays.copyOf(bottom, placed * 2);
+		}
+
+		final int label = placed++;
+		left[label] = x0;
+		top[label] = y0;
+		right[label] = x1;
+		bottom[label] = y1;
+
+		final int cx1 = column(x1 - 1);
+		final int cy1 = row(y1 - 1);
+		for (int cx = column(x0); cx <= cx1; cx++)
+		{
+			for (int cy = row(y0); cy <= cy1; cy++)
+			{
+				if (entries == entryLabel.length)
+				{
+					entryLabel = Arrays.copyOf(entryLabel, entries * 2);
+					entryNext = Arrays.copyOf(entryNext, entries * 2);
+				}
+
+				final int cell = cy * columns + cx;
+				entryLabel[entries] = label;
+				entryNext[entries] = cellHeads[cell];
+				cellHeads[cell] = entries++;
+			}
+		}
+	}
+
+	private int column(int x)
+	{
+		return Math.max(0, Math.min(columns - 1, x >> CELL_SHIFT));
+	}
+
+	private int row(int y)
+	{
+		return Math.max(0, Math.min(rows - 1, y >> CELL_SHIFT));
+	}
+}
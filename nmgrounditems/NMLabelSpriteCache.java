@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2026, TomMartow <https://github.com/TomMartow>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.nmgrounditems;
+
+import lombok.Value;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Rasterizes overlay labels, including their shadow or outline, into translucent images which
+ * are then drawn with a single blit per frame. Least recently drawn images are evicted once the
+ * cache holds more than {@link #MAX_BYTES} of pixel data.
+ */
+class NMLabelSpriteCache
+{
+	private static final long MAX_BYTES = 8L * 1024 * 1024;
+	// Room for the one pixel shadow or outline around the text
+	private static final int PADDING = 1;
+
+	@Value
+	private static class Key
+	{
+		private final String text;
+		private final int rgb;
+		private final boolean outline;
+	}
+
+	private final Map<Key, BufferedImage> sprites = new LinkedHashMap<>(64, 0.75f, true);
+	private long bytes;
+	private Font font;
+
+	/**
+	 * Draws the text with its baseline at (x, y), like {@link net.runelite.client.ui.overlay.components.TextComponent}.
+	 */
+	void draw(Graphics2D graphics, String text, Color color, boolean outline, int x, int y)
+	{
+		final FontMetrics fm = graphics.getFontMetrics();
+		if (!fm.getFont().equals(font))
+		{
+			clear();
+			font = fm.getFont();
+		}
+
+		final Key key = new Key(text, color.getRGB(), outline);
+		BufferedImage sprite = sprites.get(key);
+		if (sprite == null)
+		{
+			sprite = rasterize(graphics, fm, text, color, outline);
+			sprites.put(key, sprite);
+			bytes += size(sprite);
+			evict();
+		}
+
+		graphics.drawImage(sprite, x - PADDING, y - fm.getAscent() - PADDING, null);
+	}
+
+	void clear()
+	{
+		sprites.clear();
+		bytes = 0;
+	}
+
+	boolean isEmpty()
+	{
+		return sprites.isEmpty();
+	}
+
+	private void evict()
+	{
+		final Iterator<BufferedImage> it = sprites.values().iterator();
+		while (bytes > MAX_BYTES && it.hasNext())
+		{
+			bytes -= size(it.next());
+			it.remove();
+		}
+	}
+
+	private static BufferedImage rasterize(Graphics2D graphics, FontMetrics fm, String text, Color color, boolean outline)
+	{
+		final int width = Math.max(1, fm.stringWidth(text) + PADDING * 2);
+		final int height = fm.getHeight() + PADDING * 2;
+		final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+
+		final Graphics2D g = image.createGraphics();
+		g.setRenderingHints(graphics.getRenderingHints());
+		g.setFont(fm.getFont());
+
+		final int x = PADDING;
+		final int y = PADDING + fm.getAscent();
+		g.setColor(new Color(0, 0, 0, color.getAlpha()));
+		if (outline)
+		{
+			g.drawString(text, x, y + 1);
+			g.drawString(text, x, y - 1);
+			g.drawString(text, x + 1, y);
+			g.drawString(text, x - 1, y);
+		}
+		else
+		{
+			g.drawString(text, x + 1, y + 1);
+		}
+
+		g.setColor(color);
+		g.drawString(text, x, y);
+		g.dispose();
+		return image;
+	}
+
+	private static long size(BufferedImage image)
+	{
+		return (long) image.getWidth() * image.getHeight() * Integer.BYTES;
+	}
+}
@@ -31,33 +31,35 @@ import net.runelite.api.coords.WorldPoint;
 import net.runelite.client.callback.ClientThread;
 
 import java.awt.*;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 
 class NMLootbeam
 {
 	private final RuneLiteObject runeLiteObject;
-	private final Client client;
 	private final ClientThread clientThread;
+	private final NMLootbeamCache cache;
 	private Color color;
 	private Style style;
+	private boolean removed;
 
 	@RequiredArgsConstructor
 	public enum Style
 	{
-		LIGHT(l -> l.client.loadModel(
+		LIGHT((client, color) -> client.loadModel(
 			5809,
 			new short[]{6371},
-			new short[]{JagexColor.rgbToHSL(l.color.getRGB(), 1.0d)}
+			new short[]{JagexColor.rgbToHSL(color.getRGB(), 1.0d)}
 		), anim(AnimationID.RAID_LIGHT_ANIMATION)),
-		MODERN(l ->
+		MODERN((client, color) ->
 		{
-			ModelData md = l.client.loadModelData(43330);
+			ModelData md = client.loadModelData(43330);
 			if (md == null)
 			{
 				return null;
 			}
 
-			short hsl = JagexColor.rgbToHSL(l.color.getRGB(), 1.0d);
+			short hsl = JagexColor.rgbToHSL(color.getRGB(), 1.0d);
 			int hue = JagexColor.unpackHue(hsl);
 			int sat = JagexColor.unpackSaturation(hsl);
 			int lum = JagexColor.unpackLuminance(hsl);
@@ -71,20 +73,20 @@ class NMLootbeam
 		}, anim(AnimationID.LOOTBEAM_ANIMATION)),
 		;
 
-		private final Function<NMLootbeam, Model> modelSupplier;
-		private final Function<NMLootbeam, Animation> animationSupplier;
+		final BiFunction<Client, Color, Model> modelSupplier;
+		final Function<Client, Animation> animationSupplier;
 	}
 
-	private static Function<NMLootbeam, Animation> anim(int id)
+	private static Function<Client, Animation> anim(int id)
 	{
-		return b -> b.client.loadAnimation(id);
+		return client -> client.loadAnimation(id);
 	}
 
-	public NMLootbeam(Client client, ClientThread clientThread, WorldPoint worldPoint, Color color, Style style)
+	public NMLootbeam(Client client, ClientThread clientThread, NMLootbeamCache cache, WorldPoint worldPoint, Color color, Style style)
 	{
-		this.client = client;
 		this.clientThread = clientThread;
-		runeLiteObject = client.createRuneLiteObject();
+		this.cache = cache;
+		runeLiteObject = cache.acquire();
 
 		this.color = color;
 		this.style = style;
@@ -93,8 +95,6 @@ class NMLootbeam
 
 		LocalPoint lp = LocalPoint.fromWorld(client, worldPoint);
 		runeLiteObject.setLocation(lp, client.getPlane());
-
-		runeLiteObject.setActive(true);
 	}
 
 	public void setColor(Color color)
@@ -123,23 +123,33 @@ class NMLootbeam
 	{
 		clientThread.invoke(() ->
 		{
-			Model model = style.modelSupplier.apply(this);
+			// The object may already be back in the pool and in use by another beam
+			if (removed)
+			{
+				return true;
+			}
+
+			Model model = cache.getModel(style, color);
 			if (model == null)
 			{
 				return false;
 			}
 
-			Animation anim = style.animationSupplier.apply(this);
+			Animation anim = cache.getAnimation(style);
 
 			runeLiteObject.setAnimation(anim);
 			runeLiteObject.setModel(model);
+			// A pooled object still holds the model of its previous beam, so it is only shown
+			// once the model of this beam is set
+			runeLiteObject.setActive(true);
 			return true;
 		});
 	}
 
 	public void remove()
 	{
-		runeLiteObject.setActive(false);
+		removed = true;
+		cache.release(runeLiteObject);
 	}
 
 }
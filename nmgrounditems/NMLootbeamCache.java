@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2026, TomMartow <https://github.com/TomMartow>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.nmgrounditems;
+
+import net.runelite.api.Animation;
+import net.runelite.api.Client;
+import net.runelite.api.Model;
+import net.runelite.api.RuneLiteObject;
+
+import javax.inject.Inject;
+import java.awt.*;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Lit lootbeam models per style and color, one animation per style, and a pool of inactive
+ * RuneLiteObjects so beams can come and go without reloading models or creating objects.
+ * Must only be used from the client thread.
+ */
+class NMLootbeamCache
+{
+	private static final int MAX_POOLED = 64;
+
+	private final Client client;
+	private final Map<Long, Model> models = new HashMap<>();
+	private final Map<NMLootbeam.Style, Animation> animations = new EnumMap<>(NMLootbeam.Style.class);
+	private final Deque<RuneLiteObject> pool = new ArrayDeque<>();
+
+	@Inject
+	private NMLootbeamCache(Client client)
+	{
+		this.client = client;
+	}
+
+	/**
+	 * Returns the lit model for the style and color, or null if the model data is not loaded yet.
+	 */
+	Model getModel(NMLootbeam.Style style, Color color)
+	{
+		final long key = (long) style.ordinal() << 32 | (color.getRGB() & 0xFFFFFFFFL);
+		Model model = models.get(key);
+		if (model == null)
+		{
+			model = style.modelSupplier.apply(client, color);
+			if (model != null)
+			{
+				models.put(key, model);
+			}
+		}
+		return model;
+	}
+
+	Animation getAnimation(NMLootbeam.Style style)
+	{
+		return animations.computeIfAbsent(style, s -> s.animationSupplier.apply(client));
+	}
+
+	RuneLiteObject acquire()
+	{
+		final RuneLiteObject runeLiteObject = pool.poll();
+		return runeLiteObject != null ? runeLiteObject : client.createRuneLiteObject();
+	}
+
+	void release(RuneLiteObject runeLiteObject)
+	{
+		runeLiteObject.setActive(false);
+		if (pool.size() < MAX_POOLED)
+		{
+			pool.push(runeLiteObject);
+		}
+	}
+
+	void clear()
+	{
+		models.clear();
+		animations.clear();
+		pool.clear();
+	}
+}
@@ -26,6 +26,8 @@ package net.runelite.client.plugins.nmgrounditems;
 
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import net.runelite.api.MenuAction;
 import net.runelite.api.MenuEntry;
 
 @RequiredArgsConstructor
@@ -41,5 +43,25 @@ class NMMenuEntryWithCount
 	{
 		count++;
 	}
+
+	/**
+	 * The fields which make two menu entries the same entry for collapsing.
+	 */
+	@Value
+	static class Key
+	{
+		private final String option;
+		private final String target;
+		private final int identifier;
+		private final MenuAction type;
+		private final int param0;
+		private final int param1;
+
+		static Key of(MenuEntry entry)
+		{
+			return new Key(entry.getOption(), entry.getTarget(), entry.getIdentifier(), entry.getType(),
+				entry.getParam0(), entry.getParam1());
+		}
+	}
 }
 
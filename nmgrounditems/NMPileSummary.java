@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2026, TomMartow <https://github.com/TomMartow>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.nmgrounditems;
+
+import lombok.Value;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.client.util.QuantityFormatter;
+
+import java.awt.*;
+
+/**
+ * Aggregate of the shown items on one tile, drawn as a single label in place of the
+ * label of every item when the tile holds a large pile.
+ */
+@Value
+class NMPileSummary
+{
+	private final WorldPoint location;
+	private final int count;
+	private final long value;
+	// Most valuable shown item on the tile
+	private final NMRenderItem topItem;
+	private final String text;
+
+	NMPileSummary(WorldPoint location, int count, long value, NMRenderItem topItem)
+	{
+		this.location = location;
+		this.count = count;
+		this.value = value;
+		this.topItem = topItem;
+
+		final StringBuilder builder = new StringBuilder(topItem.getName());
+		if (topItem.getQuantity() > 1)
+		{
+			builder.append(" (")
+				.append(QuantityFormatter.quantityToStackSize(topItem.getQuantity()))
+				.append(')');
+		}
+
+		builder.append(" +")
+			.append(count - 1)
+			.append(" (")
+			.append(QuantityFormatter.quantityToStackSize(value))
+			.append(" gp)");
+		this.text = builder.toString();
+	}
+
+	Color getColor()
+	{
+		return topItem.getClassification().getColor();
+	}
+}
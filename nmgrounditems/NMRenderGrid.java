@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2026, TomMartow <https://github.com/TomMartow>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.nmgrounditems;
+
+import net.runelite.api.Constants;
+import net.runelite.api.coords.WorldPoint;
+
+import javax.annotation.Nullable;
+import java.util.BitSet;
+
+/**
+ * Render items bucketed by plane and 8x8 tile chunk of the scene they were published in, so the
+ * overlay only visits the chunks around the player. Items of a chunk are stored contiguously and
+ * keep their snapshot order. Instances are never modified once built.
+ */
+class NMRenderGrid
+{
+	static final NMRenderGrid EMPTY = new NMRenderGrid(new NMRenderItem[0], null, 0, 0);
+
+	private static final int CHUNK_SHIFT = 3;
+	private static final int CHUNKS = (Constants.SCENE_SIZE + (1 << CHUNK_SHIFT) - 1) >> CHUNK_SHIFT;
+	private static final int CHUNKS_PER_PLANE = CHUNKS * CHUNKS;
+	// Items outside of the scene go in one extra bucket which is never queried
+	private static final int OUTSIDE = Constants.MAX_Z * CHUNKS_PER_PLANE;
+
+	private final NMRenderItem[] items;
+	private final int[] chunkStart;
+	// Indexes of the items within the label budget, or null if every item gets a label
+	@Nullable
+	private final BitSet labelled;
+	// Pile summaries, at the index of the first item of each summarized tile
+	@Nullable
+	private final NMPileSummary[] piles;
+	private final int baseX;
+	private final int baseY;
+
+	/**
+	 * @param piles pile summaries at the snapshot index of the first item of their tile, or null
+	 */
+	NMRenderGrid(NMRenderItem[] snapshot, @Nullable NMPileSummary[] piles, int baseX, int baseY)
+	{
+		this.baseX = baseX;
+		this.baseY = baseY;
+		this.labelled = null;
+		chunkStart = new int[OUTSIDE + 2];
+
+		// Counting sort by chunk, which keeps the snapshot order within each chunk
+		final int[] chunks = new int[snapshot.length];
+		for (int i = 0; i < snapshot.length; i++)
+		{
+			chunks[i] = chunkOf(snapshot[i].getLocation());
+			chunkStart[chunks[i] + 1]++;
+		}
+
+		for (int c = 0; c <= OUTSIDE; c++)
+		{
+			chunkStart[c + 1] += chunkStart[c];
+		}
+
+		items = new NMRenderItem[snapshot.length];
+		this.piles = piles != null ? new NMPileSummary[snapshot.length] : null;
+		final int[] next = chunkStart.clone();
+		for (int i = 0; i < snapshot.length; i++)
+		{
+			final int index = next[chunks[i]]++;
+			items[index] = snapshot[i];
+			if (piles != null)
+			{
+				this.piles[index] = piles[i];
+			}
+		}
+	}
+
+	private NMRenderGrid(NMRenderGrid grid, @Nullable BitSet labelled)
+	{
+		items = grid.items;
+		chunkStart = grid.chunkStart;
+		piles = grid.piles;
+		baseX = grid.baseX;
+		baseY = grid.baseY;
+		this.labelled = labelled;
+	}
+
+	/**
+	 * Returns a grid sharing the items and piles of this one, with the label budget given to
+	 * the items at the given indexes into {@link #getItems()}, or to every item if null.
+	 */
+	NMRenderGrid withLabelled(@Nullable BitSet labelled)
+	{
+		return new NMRenderGrid(this, labelled);
+	}
+
+	/**
+	 * Returns every item, grouped by chunk.
+	 */
+	NMRenderItem[] getItems()
+	{
+		return items;
+	}
+
+	/**
+	 * Returns whether the item at the index is over the label budget.
+	 */
+	boolean isCollapsed(int index)
+	{
+		return labelled != null && !labelled.get(index);
+	}
+
+	/**
+	 * Returns the summary of the pile if the item at the index is the first item of a
+	 * summarized tile, otherwise null.
+	 */
+	@Nullable
+	NMPileSummary getPile(int index)
+	{
+		return piles != null ? piles[index] : null;
+	}
+
+	/**
+	 * Writes the indexes into {@link #getItems()} of the items in every chunk within the given
+	 * number of tiles of the world location, and returns how many were written. The chunks are
+	 * only a coarse filter, the items themselves may be further away.
+	 */
+	int query(WorldPoint worldPoint, int radius, int[] out)
+	{
+		final int plane = worldPoint.getPlane();
+		final int sceneX = worldPoint.getX() - baseX;
+		final int sceneY = worldPoint.getY() - baseY;
+		final int minChunkX = Math.max(0, (sceneX - radius) >> CHUNK_SHIFT);
+		final int maxChunkX = Math.min(CHUNKS - 1, (sceneX + radius) >> CHUNK_SHIFT);
+		final int minChunkY = Math.max(0, (sceneY - radius) >> CHUNK_SHIFT);
+		final int maxChunkY = Math.min(CHUNKS - 1, (sceneY + radius) >> CHUNK_SHIFT);
+
+		int count = 0;
+		if (plane < 0 || plane >= Constants.MAX_Z)
+		{
+			return count;
+		}
+
+		for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++)
+		{
+			for (int chunkY = minChunkY; chunkY <= maxChunkY; chunkY++)
+			{
+				final int chunk = plane * CHUNKS_PER_PLANE + chunkX * CHUNKS + chunkY;
+				for (int i = chunkStart[chunk]; i < chunkStart[chunk + 1]; i++)
+				{
+					out[count++] = i;
+				}
+			}
+		}
+
+		return count;
+	}
+
+	private int chunkOf(WorldPoint location)
+	{
+		final int sceneX = location.getX() - baseX;
+		final int sceneY = location.getY() - baseY;
+		final int plane = location.getPlane();
+		if (sceneX < 0 || sceneY < 0 || sceneX >= Constants.SCENE_SIZE || sceneY >= Constants.SCENE_SIZE
+			|| plane < 0 || plane >= Constants.MAX_Z)
+		{
+			return OUTSIDE;
+		}
+
+		return plane * CHUNKS_PER_PLANE + (sceneX >> CHUNK_SHIFT) * CHUNKS + (sceneY >> CHUNK_SHIFT);
+	}
+}
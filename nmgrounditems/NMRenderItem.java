@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2026, TomMartow <https://github.com/TomMartow>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.nmgrounditems;
+
+import lombok.Value;
+import net.runelite.api.coords.WorldPoint;
+
+/**
+ * Immutable copy of a ground item as published to the overlay. A new record is only
+ * created when the tracked item changed since the previous snapshot.
+ */
+@Value
+class NMRenderItem
+{
+	private final int id;
+	private final String name;
+	private final int quantity;
+	private final WorldPoint location;
+	private final int height;
+	private final NMLootType lootType;
+	private final int spawnTick;
+	private final int publicTick;
+	private final int despawnTick;
+	private final NMItemClassification classification;
+
+	NMRenderItem(NMGroundItem item, NMItemClassification classification)
+	{
+		this.id = item.getId();
+		this.name = item.getName();
+		this.quantity = item.getQuantity();
+		this.location = item.getLocation();
+		this.height = item.getHeight();
+		this.lootType = item.getLootType();
+		this.spawnTick = item.getSpawnTick();
+		this.publicTick = item.getPublicTick();
+		this.despawnTick = item.getDespawnTick();
+		this.classification = classification;
+	}
+
+	boolean isCurrent(NMGroundItem item, NMItemClassification classification)
+	{
+		return this.classification == classification
+			&& quantity == item.getQuantity()
+			&& lootType == item.getLootType()
+			&& spawnTick == item.getSpawnTick()
+			&& publicTick == item.getPublicTick()
+			&& despawnTick == item.getDespawnTick();
+	}
+
+	int getGePrice()
+	{
+		return classification.getGePrice();
+	}
+
+	int getHaPrice()
+	{
+		return classification.getHaPrice();
+	}
+
+	boolean isMine()
+	{
+		return lootType != NMLootType.UNKNOWN;
+	}
+
+	/**
+	 * Returns whether the overlay draws the item, distance aside. This is shared by the overlay,
+	 * the pile summaries and the label budget so they always agree on which items are shown.
+	 *
+	 * @param hotkey whether the hotkey is held, which shows hidden and unhighlighted items
+	 */
+	boolean isShown(boolean onlyShowLoot, boolean showHighlightedOnly, boolean hotkey)
+	{
+		if (onlyShowLoot && !isMine())
+		{
+			return false;
+		}
+
+		return classification.getHighlighted() != null
+			|| hotkey
+			|| (classification.getHidden() == null && !showHighlightedOnly);
+	}
+}
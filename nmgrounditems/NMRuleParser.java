@@ -0,0 +1,381 @@
+/*
+ * Copyright (c) 2026, TomMartow <https://github.com/TomMartow>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.nmgrounditems;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles highlight rules into predicates over ground items. Rules are separated by new lines
+ * or ';', and have the form {@code condition -> action}, for example
+ * {@code name ~ "*rune*" && qty > 100 && ge > 5k -> color #ff0}.
+ * <ul>
+ * <li>{@code name ~ "pattern"} matches a wildcard pattern, {@code name == "name"} and
+ * {@code name != "name"} compare the whole name, all ignoring case.</li>
+ * <li>{@code qty}, {@code ge}, {@code ha} and {@code value} compare with {@code < <= > >= == !=}
+ * against numbers, which may end in k, m or b. Prices are for the whole stack.</li>
+ * <li>{@code tradeable}, {@code stackable} and {@code mine} are conditions on their own.</li>
+ * <li>Conditions combine with {@code && || !} and parentheses.</li>
+ * <li>The action is either {@code color #rgb}, {@code color #rrggbb} or {@code hide}.</li>
+ * </ul>
+ */
+class NMRuleParser
+{
+	private final ToIntFunction<NMGroundItem> value;
+
+	private List<String> tokens;
+	private int position;
+
+	/**
+	 * @param value the value of an item, by the configured value calculation mode
+	 */
+	NMRuleParser(ToIntFunction<NMGroundItem> value)
+	{
+		this.value = value;
+	}
+
+	/**
+	 * Compiles every rule of the text, in order. Rules which fail to parse are reported to the
+	 * error consumer and skipped.
+	 */
+	List<NMItemRules.Rule> parse(String text, Consumer<String> errors)
+	{
+		final List<NMItemRules.Rule> rules = new ArrayList<>();
+		for (String source : text.split("[;\\n]"))
+		{
+			source = source.trim();
+			if (source.isEmpty() || source.startsWith("//"))
+			{
+				continue;
+			}
+
+			try
+			{
+				rules.add(parseRule(source));
+			}
+			catch (IllegalArgumentException e)
+			{
+				errors.accept("Invalid rule \"" + source + "\": " + e.getMessage());
+			}
+		}
+		return rules;
+	}
+
+	private NMItemRules.Rule parseRule(String source)
+	{
+		tokens = tokenize(source);
+		position = 0;
+
+		final Predicate<NMGroundItem> condition = parseOr();
+		expect("->");
+
+		final NMItemRules.Rule rule;
+		final String action = next();
+		if (action.equalsIgnoreCase("hide"))
+		{
+			rule = new NMItemRules.Rule(condition, null);
+		}
+		else if (action.equalsIgnoreCase("color"))
+		{
+			rule = new NMItemRules.Rule(condition, parseColor(next()));
+		}
+		else
+		{
+			throw new IllegalArgumentException("unknown action " + action);
+		}
+
+		if (position != tokens.size())
+		{
+			throw new IllegalArgumentException("unexpected " + tokens.get(position));
+		}
+		return rule;
+	}
+
+	private Predicate<NMGroundItem> parseOr()
+	{
+		Predicate<NMGroundItem> predicate = parseAnd();
+		while (accept("||"))
+		{
+			predicate = predicate.or(parseAnd());
+		}
+		return predicate;
+	}
+
+	private Predicate<NMGroundItem> parseAnd()
+	{
+		Predicate<NMGroundItem> predicate = parseUnary();
+		while (accept("&&"))
+		{
+			predicate = predicate.and(parseUnary());
+		}
+		return predicate;
+	}
+
+	private Predicate<NMGroundItem> parseUnary()
+	{
+		if (accept("!"))
+		{
+			return parseUnary().negate();
+		}
+
+		if (accept("("))
+		{
+			final Predicate<NMGroundItem> predicate = parseOr();
+			expect(")");
+			return predicate;
+		}
+
+		final String field = next().toLowerCase(Locale.ROOT);
+		switch (field)
+		{
+			case "tradeable":
+				return NMGroundItem::isTradeable;
+			case "stackable":
+				return NMGroundItem::isStackable;
+			case "mine":
+				return NMGroundItem::isMine;
+			case "name":
+				return parseName();
+			case "qty":
+				return parseComparison(NMGroundItem::getQuantity);
+			case "ge":
+				return parseComparison(NMGroundItem::getGePrice);
+			case "ha":
+				return parseComparison(NMGroundItem::getHaPrice);
+			case "value":
+				return parseComparison(value::applyAsInt);
+			default:
+				throw new IllegalArgumentException("unknown field " + field);
+		}
+	}
+
+	private Predicate<NMGroundItem> parseName()
+	{
+		final String operator = next();
+		final String name = parseString(next());
+		switch (operator)
+		{
+			case "~":
+			{
+				final Pattern pattern = globToPattern(name);
+				return item -> item.getName() != null && pattern.matcher(item.getName()).matches();
+			}
+			case "==":
+				return item -> name.equalsIgnoreCase(item.getName());
+			case "!=":
+				return item -> !name.equalsIgnoreCase(item.getName());
+			default:
+				throw new IllegalArgumentException("unknown name operator " + operator);
+		}
+	}
+
+	private Predicate<NMGroundItem> parseComparison(ToLongFunction<NMGroundItem> field)
+	{
+		final String operator = next();
+		final long number = parseNumber(next());
+		switch (operator)
+		{
+			case "<":
+				return item -> field.applyAsLong(item) < number;
+			case "<=":
+				return item -> field.applyAsLong(item) <= number;
+			case ">":
+				return item -> field.applyAsLong(item) > number;
+			case ">=":
+				return item -> field.applyAsLong(item) >= number;
+			case "==":
+				return item -> field.applyAsLong(item) == number;
+			case "!=":
+				return item -> field.applyAsLong(item) != number;
+			default:
+				throw new IllegalArgumentException("unknown operator " + operator);
+		}
+	}
+
+	private boolean accept(String token)
+	{
+		if (position < tokens.size() && tokens.get(position).equals(token))
+		{
+			position++;
+			return true;
+		}
+		return false;
+	}
+
+	private void expect(String token)
+	{
+		if (!accept(token))
+		{
+			throw new IllegalArgumentException("expected " + token);
+		}
+	}
+
+	private String next()
+	{
+		if (position >= tokens.size())
+		{
+			throw new IllegalArgumentException("unexpected end of rule");
+		}
+		return tokens.get(position++);
+	}
+
+	private static List<String> tokenize(String source)
+	{
+		final List<String> tokens = new ArrayList<>();
+		int i = 0;
+		while (i < source.length())
+		{
+			final char c = source.charAt(i);
+			if (Character.isWhitespace(c))
+			{
+				i++;
+				continue;
+			}
+
+			int end = i + 1;
+			if (c == '"')
+			{
+				end = source.indexOf('"', i + 1);
+				if (end == -1)
+				{
+					throw new IllegalArgumentException("unterminated string");
+				}
+				end++;
+			}
+			else if (Character.isLetterOrDigit(c) || c == '#' || c == '.')
+			{
+				while (end < source.length() && (Character.isLetterOrDigit(source.charAt(end)) || source.charAt(end) == '.'))
+				{
+					end++;
+				}
+			}
+			else if (source.startsWith("&&", i) || source.startsWith("||", i) || source.startsWith("->", i)
+				|| source.startsWith("<=", i) || source.startsWith(">=", i) || source.startsWith("==", i)
+				|| source.startsWith("!=", i))
+			{
+				end = i + 2;
+			}
+			else if ("!()~<>".indexOf(c) == -1)
+			{
+				throw new IllegalArgumentException("unexpected " + c);
+			}
+
+			tokens.add(source.substring(i, end));
+			i = end;
+		}
+		return tokens;
+	}
+
+	private static String parseString(String token)
+	{
+		if (token.length() < 2 || token.charAt(0) != '"')
+		{
+			throw new IllegalArgumentException("expected a quoted name");
+		}
+		return token.substring(1, token.length() - 1);
+	}
+
+	private static long parseNumber(String token)
+	{
+		final String lower = token.toLowerCase(Locale.ROOT);
+		long multiplier = 1;
+		String digits = lower;
+		switch (lower.charAt(lower.length() - 1))
+		{
+			case 'k':
+				multiplier = 1_000L;
+				break;
+			case 'm':
+				multiplier = 1_000_000L;
+				break;
+			case 'b':
+				multiplier = 1_000_000_000L;
+				break;
+		}
+
+		if (multiplier != 1)
+		{
+			digits = lower.substring(0, lower.length() - 1);
+		}
+
+		try
+		{
+			return (long) (Double.parseDouble(digits) * multiplier);
+		}
+		catch (NumberFormatException e)
+		{
+			throw new IllegalArgumentException("invalid number " + token);
+		}
+	}
+
+	private static Color parseColor(String token)
+	{
+		if (!token.startsWith("#"))
+		{
+			throw new IllegalArgumentException("expected a color such as #ff0");
+		}
+
+		String hex = token.substring(1);
+		if (hex.length() == 3)
+		{
+			hex = new String(new char[]{hex.charAt(0), hex.charAt(0), hex.charAt(1), hex.charAt(1), hex.charAt(2), hex.charAt(2)});
+		}
+
+		if (hex.length() != 6)
+		{
+			throw new IllegalArgumentException("invalid color " + token);
+		}
+
+		try
+		{
+			return new Color(Integer.parseInt(hex, 16));
+		}
+		catch (NumberFormatException e)
+		{
+			throw new IllegalArgumentException("invalid color " + token);
+		}
+	}
+
+	// Same matching as WildcardMatcher: '*' matches anything, ignoring case
+	private static Pattern globToPattern(String glob)
+	{
+		final StringBuilder regex = new StringBuilder();
+		int start = 0;
+		for (int star = glob.indexOf('*'); star != -1; star = glob.indexOf('*', start))
+		{
+			regex.append(Pattern.quote(glob.substring(start, star))).append(".*");
+			start = star + 1;
+		}
+		regex.append(Pattern.quote(glob.substring(start)));
+		return Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+	}
+}
@@ -26,44 +26,40 @@ package net.runelite.client.plugins.nmgrounditems;
 
 import com.google.common.base.Strings;
 import com.google.common.cache.CacheLoader;
-import net.runelite.client.util.WildcardMatcher;
+import com.google.common.collect.ImmutableList;
 
 import javax.annotation.Nonnull;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
 
-class NMWildcardMatchLoader extends CacheLoader<NMNamedQuantity, Boolean>
+/**
+ * Resolves an item name to the thresholds of every list entry matching it. Quantities are
+ * deliberately not part of the key, so stack size changes never cause another match.
+ * The matcher may be replaced when the list is edited, invalidating only the names whose
+ * result changed.
+ */
+class NMWildcardMatchLoader extends CacheLoader<String, List<NMItemThreshold>>
 {
-	private final List<NMItemThreshold> NMItemThresholds;
+	private volatile NMItemMatcher matcher;
 
-	NMWildcardMatchLoader(List<String> configEntries)
+	NMWildcardMatchLoader(NMItemMatcher matcher)
 	{
-		this.NMItemThresholds = configEntries.stream()
-			.map(NMItemThreshold::fromConfigEntry)
-			.filter(Objects::nonNull)
-			.collect(Collectors.toList());
+		this.matcher = matcher;
 	}
 
-	@Override
-	public Boolean load(@Nonnull final NMNamedQuantity key)
+	void setMatcher(NMItemMatcher matcher)
 	{
-		if (Strings.isNullOrEmpty(key.getName()))
-		{
-			return false;
-		}
-
-		final String filteredName = key.getName().trim();
+		this.matcher = matcher;
+	}
 
-		for (final NMItemThreshold entry : NMItemThresholds)
+	@Override
+	public List<NMItemThreshold> load(@Nonnull final String name)
+	{
+		if (Strings.isNullOrEmpty(name))
 		{
-			if (WildcardMatcher.matches(entry.getItemName(), filteredName)
-				&& entry.quantityHolds(key.getQuantity()))
-			{
-				return true;
-			}
+			return ImmutableList.of();
 		}
 
-		return false;
+		final String filteredName = name.trim();
+		return ImmutableList.copyOf(matcher.match(filteredName));
 	}
 }